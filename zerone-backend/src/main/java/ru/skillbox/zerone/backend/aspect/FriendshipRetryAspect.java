@@ -0,0 +1,52 @@
+package ru.skillbox.zerone.backend.aspect;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.skillbox.zerone.backend.exception.FriendshipException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static ru.skillbox.zerone.backend.service.FriendService.CONCURRENT_FRIENDSHIP_UPDATE;
+
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FriendshipRetryAspect {
+
+  @Value("${friendship.retry.max-attempts}")
+  private int maxAttempts;
+  @Value("${friendship.retry.backoff}")
+  private long backoff;
+
+  @Pointcut("execution(* ru.skillbox.zerone.backend.service.FriendService.addFriend(long)) || " +
+      "execution(* ru.skillbox.zerone.backend.service.FriendService.removeFriend(long)) || " +
+      "execution(* ru.skillbox.zerone.backend.service.FriendService.blockUser(long)) || " +
+      "execution(* ru.skillbox.zerone.backend.service.FriendService.unblockUser(long))")
+  public void friendshipMutationPointcut() {}
+
+  @Around("friendshipMutationPointcut()")
+  public Object retryOnConflictAdvice(ProceedingJoinPoint joinPoint) throws Throwable {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return joinPoint.proceed();
+      } catch (ConcurrencyFailureException | DataIntegrityViolationException ex) {
+        if (attempt >= maxAttempts) {
+          log.warn("{} failed after {} attempts cause {}", joinPoint.getSignature().getName(), attempt, ex.getMessage());
+          throw new FriendshipException(CONCURRENT_FRIENDSHIP_UPDATE);
+        }
+        log.debug("{} conflict on attempt {}, retrying", joinPoint.getSignature().getName(), attempt);
+        Thread.sleep(ThreadLocalRandom.current().nextLong(backoff * attempt + 1));
+      }
+    }
+  }
+}
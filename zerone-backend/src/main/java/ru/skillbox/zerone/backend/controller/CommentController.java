@@ -23,6 +23,14 @@ public class CommentController implements SwaggerCommentController {
     return commentService.getComments(offset, itemPerPage, id);
   }
 
+  @GetMapping("/post/{id}/comments/{comment_id}/replies")
+  public CommonListResponseDTO<CommentDTO> getReplies(@PathVariable long id,
+                                                      @PathVariable(name = "comment_id") long commentId,
+                                                      @RequestParam(name = "offset", defaultValue = "0") int offset,
+                                                      @RequestParam(name = "itemPerPage", defaultValue = "5") int itemPerPage) {
+    return commentService.getReplies(id, commentId, offset, itemPerPage);
+  }
+
   @PostMapping("/post/{id}/comments")
   public CommonResponseDTO<CommentDTO> addComment(@PathVariable long id,
                                                   @RequestBody CommentRequestDTO commentRequest) {
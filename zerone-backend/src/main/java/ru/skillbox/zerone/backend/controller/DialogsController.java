@@ -36,8 +36,11 @@ public class DialogsController implements SwaggerDialogsController {
   @GetMapping("/{id}/messages")
   public CommonListResponseDTO<MessageDataDTO> getMessages(@PathVariable long id,
                                                            @RequestParam(name = "offset", defaultValue = "0") @Min(0) int offset,
-                                                           @RequestParam(name = "itemPerPage", defaultValue = "1000") @Min(0) int itemPerPage) {
-    return dialogService.getMessages(id, offset, itemPerPage);
+                                                           @RequestParam(name = "itemPerPage", defaultValue = "1000") @Min(0) int itemPerPage,
+                                                           @RequestParam(name = "before", required = false) Long before,
+                                                           @RequestParam(name = "after", required = false) Long after,
+                                                           @RequestParam(name = "around", required = false) Long around) {
+    return dialogService.getMessages(id, offset, itemPerPage, before, after, around);
   }
 
   @Override
@@ -10,6 +10,7 @@ import ru.skillbox.zerone.backend.controller.swaggerdoc.SwaggerFriendsController
 import ru.skillbox.zerone.backend.model.dto.request.IsFriendsDTO;
 import ru.skillbox.zerone.backend.model.dto.response.*;
 import ru.skillbox.zerone.backend.service.FriendService;
+import ru.skillbox.zerone.backend.service.MutualFriendsService;
 
 @Validated
 @RestController
@@ -17,6 +18,7 @@ import ru.skillbox.zerone.backend.service.FriendService;
 @RequestMapping(value = "/api/v1", produces = MediaType.APPLICATION_JSON_VALUE)
 public class FriendsController implements SwaggerFriendsController {
   private final FriendService friendService;
+  private final MutualFriendsService mutualFriendsService;
 
   @Override
   @PostMapping("/friends/{id}")
@@ -58,4 +60,18 @@ public class FriendsController implements SwaggerFriendsController {
                                                            @RequestParam(name = "itemPerPage", defaultValue = "20") @Min(0) int itemPerPage) {
     return friendService.getRecommendations(offset, itemPerPage);
   }
+
+  @Override
+  @GetMapping("/friends/{id}/mutual")
+  public CommonListResponseDTO<UserDTO> getMutualFriends(@PathVariable long id,
+                                                         @RequestParam(name = "offset", defaultValue = "0") @Min(0) int offset,
+                                                         @RequestParam(name = "itemPerPage", defaultValue = "20") @Min(0) int itemPerPage) {
+    return mutualFriendsService.getMutualFriends(id, offset, itemPerPage);
+  }
+
+  @Override
+  @PostMapping("/friends/mutual/count")
+  public CommonListResponseDTO<MutualFriendsCountDTO> getMutualFriendsCounts(@Valid @RequestBody IsFriendsDTO isFriendsDTO) {
+    return mutualFriendsService.getMutualFriendsCounts(isFriendsDTO.getUserIds());
+  }
 }
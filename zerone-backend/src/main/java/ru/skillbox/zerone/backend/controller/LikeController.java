@@ -49,8 +49,10 @@ public class LikeController {
   @Operation(summary = "Получить лайки")
   @GetMapping("/likes")
   public CommonResponseDTO<LikeData> getLikes(@RequestParam(name = "item_id") Long id,
-                                              @RequestParam(name = "type") LikeType type) {
-    return likeService.getLikes(id, type);
+                                              @RequestParam(name = "type") LikeType type,
+                                              @RequestParam(name = "offset", defaultValue = "0") int offset,
+                                              @RequestParam(name = "itemPerPage", defaultValue = "20") int itemPerPage) {
+    return likeService.getLikes(id, type, offset, itemPerPage);
   }
 }
 
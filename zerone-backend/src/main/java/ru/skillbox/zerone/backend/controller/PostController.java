@@ -46,16 +46,18 @@ class PostController implements SwaggerPostController {
   @GetMapping("/users/{id}/wall")
   public CommonListResponseDTO<PostDTO> getUserWall(@PathVariable int id,
                                                     @RequestParam(name = "offset", defaultValue = "0") int offset,
-                                                    @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage) {
-    return postService.getAuthorWall(id, offset, itemPerPage);
+                                                    @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
+    return postService.getAuthorWall(id, offset, itemPerPage, cursor);
 
   }
 
 
   @GetMapping("/feeds")
   public CommonListResponseDTO<PostDTO> getFeeds(@RequestParam(name = "offset", defaultValue = "0") int offset,
-                                                 @RequestParam(name = "itemPerPage", defaultValue = "20") int itemPerPage) {
-    return postService.getFeeds(offset, itemPerPage);
+                                                 @RequestParam(name = "itemPerPage", defaultValue = "20") int itemPerPage,
+                                                 @RequestParam(name = "cursor", required = false) String cursor) {
+    return postService.getFeeds(offset, itemPerPage, cursor);
   }
 
 
@@ -65,8 +67,9 @@ class PostController implements SwaggerPostController {
                                                  @RequestParam(name = "tag", required = false) String tag,
                                                  @RequestParam(name = "date_from", defaultValue = "0") Long dateFrom,
                                                  @RequestParam(name = "offset", defaultValue = "0") int offset,
-                                                 @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage) {
-    return postService.getPosts(text, author, tag, dateFrom, offset, itemPerPage);
+                                                 @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage,
+                                                 @RequestParam(name = "cursor", required = false) String cursor) {
+    return postService.getPosts(text, author, tag, dateFrom, offset, itemPerPage, cursor);
   }
 
 
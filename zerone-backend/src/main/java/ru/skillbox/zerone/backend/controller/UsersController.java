@@ -43,8 +43,9 @@ public class UsersController implements SwaggerUsersController {
                                                 @RequestParam(name = "age_from", required = false) Integer ageFrom,
                                                 @RequestParam(name = "age_to", required = false) Integer ageTo,
                                                 @RequestParam(name = "offset", defaultValue = "0") int offset,
-                                                @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage) {
-    return userService.searchUsers(name, lastName, country, city, ageFrom, ageTo, offset, itemPerPage);
+                                                @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage,
+                                                @RequestParam(name = "exact_total", defaultValue = "true") boolean exactTotal) {
+    return userService.searchUsers(name, lastName, country, city, ageFrom, ageTo, offset, itemPerPage, exactTotal);
   }
 
   @PutMapping("/block/{id}")
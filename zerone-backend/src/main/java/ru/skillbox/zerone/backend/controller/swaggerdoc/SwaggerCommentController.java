@@ -18,6 +18,13 @@ public interface SwaggerCommentController {
                                              @RequestParam(name = "itemPerPage", defaultValue = "5") int itemPerPage,
                                              @PathVariable long id);
 
+  @Operation(summary = "Получить ответы на коментарий")
+  @GetMapping("/post/{id}/comments/{comment_id}/replies")
+  CommonListResponseDTO<CommentDTO> getReplies(@PathVariable long id,
+                                               @PathVariable(name = "comment_id") long commentId,
+                                               @RequestParam(name = "offset", defaultValue = "0") int offset,
+                                               @RequestParam(name = "itemPerPage", defaultValue = "5") int itemPerPage);
+
   @Operation(summary = "Написать коментарий")
   @PostMapping("/post/{id}/comments")
   CommonResponseDTO<CommentDTO> addComment(@PathVariable long id,
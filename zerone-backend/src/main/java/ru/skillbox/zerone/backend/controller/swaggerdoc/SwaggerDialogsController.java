@@ -1,6 +1,7 @@
 package ru.skillbox.zerone.backend.controller.swaggerdoc;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -31,7 +32,10 @@ public interface SwaggerDialogsController {
       @ApiResponse(responseCode = "400", description = "Не удалось получить сообщения", content = @Content)
   })
   @Operation(summary = "Получение сообщений")
-  CommonListResponseDTO<MessageDataDTO> getMessages(long id, @Min(0) int offset, @Min(0) int itemPerPage);
+  CommonListResponseDTO<MessageDataDTO> getMessages(long id, @Min(0) int offset, @Min(0) int itemPerPage,
+                                                    @Parameter(description = "Сообщения старше указанного id") Long before,
+                                                    @Parameter(description = "Сообщения новее указанного id") Long after,
+                                                    @Parameter(description = "Окно сообщений вокруг указанного id") Long around);
 
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Диалог создан"),
@@ -44,4 +44,13 @@ public interface SwaggerFriendsController {
   @ApiResponses(value = @ApiResponse(responseCode = "200", description = "Список рекоммендаций сформирован"))
   @Operation(summary = "Получить список рекомендаций", description = "Получить список персональных рекомендация для пользователя")
   CommonListResponseDTO<UserDTO> getRecommendations(@Min(0) int offset, @Min(0) int itemPerPage);
+
+  @ApiResponses(value = @ApiResponse(responseCode = "200", description = "Список общих друзей сформирован"))
+  @Operation(summary = "Получить общих друзей", description = "Получить количество и первую страницу общих друзей с пользователем")
+  CommonListResponseDTO<UserDTO> getMutualFriends(long id, @Min(0) int offset, @Min(0) int itemPerPage);
+
+  @ApiResponses(value = @ApiResponse(responseCode = "200", description = "Список ответов сформирован"))
+  @Operation(summary = "Количество общих друзей",
+      description = "Получить количество общих друзей для списка пользователей одним запросом")
+  CommonListResponseDTO<MutualFriendsCountDTO> getMutualFriendsCounts(@Valid IsFriendsDTO isFriendsDTO);
 }
@@ -1,6 +1,7 @@
 package ru.skillbox.zerone.backend.controller.swaggerdoc;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.web.bind.annotation.*;
 import ru.skillbox.zerone.backend.model.dto.request.PostRequestDTO;
@@ -24,13 +25,15 @@ public interface SwaggerPostController {
   @GetMapping("/users/{id}/wall")
   CommonListResponseDTO<PostDTO> getUserWall(@PathVariable int id,
                                              @RequestParam(name = "offset", defaultValue = "0") int offset,
-                                             @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage);
+                                             @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage,
+                                             @RequestParam(name = "cursor", required = false) String cursor);
 
   @Operation(summary = "Получить посты новостях")
   @GetMapping("/feeds")
   CommonListResponseDTO<PostDTO> getFeeds(
       @RequestParam(name = "offset", defaultValue = "0") int offset,
-      @RequestParam(name = "itemPerPage", defaultValue = "20") int itemPerPage);
+      @RequestParam(name = "itemPerPage", defaultValue = "20") int itemPerPage,
+      @RequestParam(name = "cursor", required = false) String cursor);
 
   @Operation(summary = "Получить посты в поиске")
   @GetMapping("/post")
@@ -39,7 +42,10 @@ public interface SwaggerPostController {
                                           @RequestParam(name = "tag", required = false) String tag,
                                           @RequestParam(name = "date_from", defaultValue = "0") Long dateFrom,
                                           @RequestParam(name = "offset", defaultValue = "0") int offset,
-                                          @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage);
+                                          @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage,
+                                          @Parameter(description = "Курсор следующей страницы. Страницы по курсору "
+                                              + "упорядочены по дате изменения, а не по релевантности")
+                                          @RequestParam(name = "cursor", required = false) String cursor);
 
   @Operation(summary = "Получить пост")
   @GetMapping("/post/{id}")
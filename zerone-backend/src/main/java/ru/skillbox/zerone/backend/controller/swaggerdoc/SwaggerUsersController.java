@@ -38,7 +38,8 @@ public interface SwaggerUsersController {
                                          @RequestParam(name = "age_from", required = false) Integer ageFrom,
                                          @RequestParam(name = "age_to", required = false) Integer ageTo,
                                          @RequestParam(name = "offset", defaultValue = "0") int offset,
-                                         @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage);
+                                         @RequestParam(name = "itemPerPage", defaultValue = "10") int itemPerPage,
+                                         @RequestParam(name = "exact_total", defaultValue = "true") boolean exactTotal);
 
   @Operation(summary = "Заблокировать пользователя")
   @ApiResponse(responseCode = "200", description = "Пользователь успешно заблокирован")
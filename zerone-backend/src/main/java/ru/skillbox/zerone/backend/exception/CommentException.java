@@ -0,0 +1,7 @@
+package ru.skillbox.zerone.backend.exception;
+
+public class CommentException extends ZeroneException {
+  public CommentException(String cause) {
+    super(cause);
+  }
+}
@@ -0,0 +1,7 @@
+package ru.skillbox.zerone.backend.exception;
+
+public class CursorException extends ZeroneException {
+  public CursorException(String cause) {
+    super(cause);
+  }
+}
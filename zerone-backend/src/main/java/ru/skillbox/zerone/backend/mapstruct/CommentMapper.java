@@ -7,8 +7,8 @@ import org.mapstruct.MappingTarget;
 import ru.skillbox.zerone.backend.model.dto.request.CommentRequestDTO;
 import ru.skillbox.zerone.backend.model.dto.response.CommentDTO;
 import ru.skillbox.zerone.backend.model.entity.Comment;
-
-import java.util.List;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.projection.CommentRow;
 
 @Mapper
 @DecoratedWith(CommentMapperDecorator.class)
@@ -17,13 +17,13 @@ public interface CommentMapper {
   @Mapping(target = "post", source = "comment.post.id")
   @Mapping(target = "blocked", source = "comment.isBlocked")
   @Mapping(target = "deleted", source = "comment.isDeleted")
-  @Mapping(target = "subComments", expression = "java(commentListToCommentDTOList(comment.getComments()))")
+  @Mapping(target = "subComments", expression = "java(new java.util.ArrayList<>())")
   CommentDTO commentToCommentDTO(Comment comment);
 
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "isBlocked", ignore = true)
-  @Mapping(target = "comments", ignore = true)
   @Mapping(target = "isDeleted", ignore = true)
+  @Mapping(target = "replyCount", ignore = true)
   @Mapping(target = "author", expression = "java(ru.skillbox.zerone.backend.util.CurrentUserUtils.getCurrentUser())")
   @Mapping(target = "type", expression = "java(dto.getParentId() == null ? ru.skillbox.zerone.backend.model.enumerated.CommentType.POST : ru.skillbox.zerone.backend.model.enumerated.CommentType.COMMENT)")
   Comment dtoToComment(CommentRequestDTO dto, long postId);
@@ -31,14 +31,28 @@ public interface CommentMapper {
 
   @Mapping(target = "id", ignore = true)
   @Mapping(target = "isBlocked", ignore = true)
-  @Mapping(target = "comments", ignore = true)
   @Mapping(target = "time", ignore = true)
   @Mapping(target = "isDeleted", ignore = true)
   @Mapping(target = "parent", ignore = true)
+  @Mapping(target = "replyCount", ignore = true)
   @Mapping(target = "author", expression = "java(ru.skillbox.zerone.backend.util.CurrentUserUtils.getCurrentUser())")
   @Mapping(target = "type", expression = "java(dto.getParentId() == null ? ru.skillbox.zerone.backend.model.enumerated.CommentType.POST : ru.skillbox.zerone.backend.model.enumerated.CommentType.COMMENT)")
   void updateComment(@MappingTarget Comment comment, CommentRequestDTO dto);
 
-  List<CommentDTO> commentListToCommentDTOList(List<Comment> comment);
+  @Mapping(target = "id", source = "row.id")
+  @Mapping(target = "parentId", source = "row.parentId")
+  @Mapping(target = "post", source = "row.postId")
+  @Mapping(target = "commentText", source = "row.commentText")
+  @Mapping(target = "time", source = "row.time")
+  @Mapping(target = "type", source = "row.type")
+  @Mapping(target = "blocked", source = "row.isBlocked")
+  @Mapping(target = "deleted", source = "row.isDeleted")
+  @Mapping(target = "replyCount", source = "row.replyCount")
+  @Mapping(target = "author", source = "author")
+  @Mapping(target = "subComments", ignore = true)
+  @Mapping(target = "likes", ignore = true)
+  @Mapping(target = "myLike", ignore = true)
+  @Mapping(target = "images", ignore = true)
+  CommentDTO commentRowToCommentDTO(CommentRow row, User author);
 
 }
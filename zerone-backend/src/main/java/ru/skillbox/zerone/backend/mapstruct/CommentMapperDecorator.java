@@ -1,15 +1,18 @@
 package ru.skillbox.zerone.backend.mapstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import ru.skillbox.zerone.backend.exception.CommentException;
 import ru.skillbox.zerone.backend.exception.CommentNotFoundException;
 import ru.skillbox.zerone.backend.exception.PostNotFoundException;
 import ru.skillbox.zerone.backend.model.dto.request.CommentRequestDTO;
 import ru.skillbox.zerone.backend.model.dto.response.CommentDTO;
 import ru.skillbox.zerone.backend.model.entity.Comment;
 import ru.skillbox.zerone.backend.model.entity.Post;
+import ru.skillbox.zerone.backend.model.enumerated.LikeType;
 import ru.skillbox.zerone.backend.repository.CommentRepository;
-import ru.skillbox.zerone.backend.repository.LikeRepository;
 import ru.skillbox.zerone.backend.repository.PostRepository;
+import ru.skillbox.zerone.backend.service.LikeStoreService;
+import ru.skillbox.zerone.backend.service.LikeStoreService.LikeSummary;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
 
 import java.util.List;
@@ -20,7 +23,7 @@ public abstract class CommentMapperDecorator implements CommentMapper {
   private CommentMapper mapper;
 
   @Autowired
-  private LikeRepository likeRepository;
+  private LikeStoreService likeStoreService;
 
   @Autowired
   private PostRepository postRepository;
@@ -31,8 +34,10 @@ public abstract class CommentMapperDecorator implements CommentMapper {
   @Override
   public CommentDTO commentToCommentDTO(Comment comment) {
     CommentDTO commentDTO = mapper.commentToCommentDTO(comment);
-    commentDTO.setLikes(likeRepository.countByComment(comment));
-    commentDTO.setMyLike(likeRepository.findByUserAndComment(CurrentUserUtils.getCurrentUser(), comment).isPresent());
+    var like = likeStoreService.summaries(LikeType.COMMENT, List.of(comment.getId()),
+        CurrentUserUtils.getCurrentUser().getId()).getOrDefault(comment.getId(), LikeSummary.NONE);
+    commentDTO.setLikes(like.count());
+    commentDTO.setMyLike(like.liked());
     return commentDTO;
   }
 
@@ -43,13 +48,12 @@ public abstract class CommentMapperDecorator implements CommentMapper {
     comment.setPost(post);
     if (dto.getParentId() != null) {
       Comment parentComment = commentRepository.findById(dto.getParentId()).orElseThrow(() -> new CommentNotFoundException(String.format("Комментарий с id %d не найден", dto.getParentId())));
+      if (parentComment.getPost().getId() != postId) {
+        throw new CommentException(String.format("Комментарий с id %d не относится к посту с id %d",
+            dto.getParentId(), postId));
+      }
       comment.setParent(parentComment);
     }
     return comment;
   }
-
-  @Override
-  public List<CommentDTO> commentListToCommentDTOList(List<Comment> comment) {
-    return comment.stream().map(this::commentToCommentDTO).toList();
-  }
 }
@@ -5,7 +5,9 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import ru.skillbox.zerone.backend.model.dto.response.DialogDataDTO;
+import ru.skillbox.zerone.backend.model.dto.response.MessageDataDTO;
 import ru.skillbox.zerone.backend.model.entity.Dialog;
+import ru.skillbox.zerone.backend.model.entity.DialogSummary;
 import ru.skillbox.zerone.backend.model.entity.Message;
 import ru.skillbox.zerone.backend.model.entity.User;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
@@ -15,6 +17,19 @@ public interface DialogMapper {
   @Mapping(target = "id", source = "dialog.id")
   DialogDataDTO dialogToDialogDataDTO(Dialog dialog, Message lastMessage, int unreadCount, User companion);
 
+  @Mapping(target = "id", source = "summary.dialogId")
+  @Mapping(target = "lastMessage", source = "summary")
+  DialogDataDTO dialogSummaryToDialogDataDTO(DialogSummary summary, int unreadCount, User companion);
+
+  @Mapping(target = "id", source = "lastMessageId")
+  @Mapping(target = "dialogId", source = "dialogId")
+  @Mapping(target = "messageText", source = "lastMessagePreview")
+  @Mapping(target = "time", source = "lastMessageTime")
+  @Mapping(target = "authorId", source = "lastMessageAuthorId")
+  @Mapping(target = "readStatus", expression = "java(summary.lastMessageReadStatus().name())")
+  @Mapping(target = "sendByMe", expression = "java(ru.skillbox.zerone.backend.util.CurrentUserUtils.getCurrentUser().getId().equals(summary.getLastMessageAuthorId()))")
+  MessageDataDTO dialogSummaryToLastMessageDataDTO(DialogSummary summary);
+
   @AfterMapping
   default void checkIsPersonalMessageVault(@MappingTarget DialogDataDTO.DialogDataDTOBuilder dialogDataDTOBuilder) {
     var userDTO = dialogDataDTOBuilder.build().getCompanion();
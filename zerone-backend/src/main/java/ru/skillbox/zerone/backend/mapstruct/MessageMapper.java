@@ -7,6 +7,7 @@ import ru.skillbox.zerone.backend.model.dto.response.MessageDataDTO;
 import ru.skillbox.zerone.backend.model.dto.socket.response.SocketMessageDataDTO;
 import ru.skillbox.zerone.backend.model.entity.Dialog;
 import ru.skillbox.zerone.backend.model.entity.Message;
+import ru.skillbox.zerone.backend.model.enumerated.ReadStatus;
 
 import java.util.List;
 
@@ -16,12 +17,12 @@ public interface MessageMapper {
   @Mapping(target = "time", source = "message.sentTime")
   @Mapping(target = "sendByMe", expression = "java(ru.skillbox.zerone.backend.util.CurrentUserUtils.getCurrentUser().getId().equals(message.getAuthor().getId()))")
   @Mapping(target = "authorId", source = "message.author.id")
+  @Mapping(target = "readStatus", expression = "java(readStatusOf(message))")
   MessageDataDTO messageToMessageDataDTO (Message message);
 
   List<MessageDataDTO> messagesListToMessageDataDTOs (List<Message> messages);
 
   @Mapping(target = "sentTime", ignore = true)
-  @Mapping(target = "readStatus", ignore = true)
   @Mapping(target = "author", expression = "java(ru.skillbox.zerone.backend.util.CurrentUserUtils.getCurrentUser())")
   @Mapping(target = "dialog", source = "dialog")
   @Mapping(target = "id", expression = "java(null)")
@@ -32,5 +33,11 @@ public interface MessageMapper {
   @Mapping(target = "dialogId", source = "message.dialog.id")
   @Mapping(target = "authorId", source = "message.author.id")
   @Mapping(target = "id", source = "message.id")
+  @Mapping(target = "readStatus", expression = "java(readStatusOf(message))")
   SocketMessageDataDTO messageToSocketMessageDataDTO(Message message);
+
+  default String readStatusOf(Message message) {
+    var dialog = message.getDialog();
+    return dialog.getSender().getId().equals(dialog.getRecipient().getId()) ? ReadStatus.READ.name() : ReadStatus.SENT.name();
+  }
 }
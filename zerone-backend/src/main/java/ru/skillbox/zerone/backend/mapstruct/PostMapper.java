@@ -15,7 +15,7 @@ import java.util.List;
 @DecoratedWith(PostMapperDecorator.class)
 public interface PostMapper {
 
-  @Mapping(target = "tags", expression = "java(post.getTags() == null ? java.util.Collections.emptyList() : post.getTags().stream().map(ru.skillbox.zerone.backend.model.entity.Tag::getName).toList())")
+  @Mapping(target = "tags", ignore = true)
   PostDTO postToPostsDTO(Post post);
 
   List<PostDTO> toDtoList(List<Post> postList);
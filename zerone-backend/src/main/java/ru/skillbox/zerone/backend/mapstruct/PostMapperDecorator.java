@@ -3,17 +3,27 @@ package ru.skillbox.zerone.backend.mapstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import ru.skillbox.zerone.backend.model.dto.response.PostDTO;
 import ru.skillbox.zerone.backend.model.entity.Post;
+import ru.skillbox.zerone.backend.model.enumerated.LikeType;
 import ru.skillbox.zerone.backend.model.enumerated.PostType;
-import ru.skillbox.zerone.backend.repository.LikeRepository;
+import ru.skillbox.zerone.backend.model.projection.PostTagName;
+import ru.skillbox.zerone.backend.repository.PostToTagRepository;
 import ru.skillbox.zerone.backend.service.CommentService;
+import ru.skillbox.zerone.backend.service.LikeStoreService;
+import ru.skillbox.zerone.backend.service.LikeStoreService.LikeSummary;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 public abstract class PostMapperDecorator implements PostMapper {
 
+  private static final int COMMENTS_PREVIEW_SIZE = 5;
+
+  @Autowired
+  private LikeStoreService likeStoreService;
+
   @Autowired
-  private LikeRepository likeRepository;
+  private PostToTagRepository postToTagRepository;
 
   @Autowired
   private PostMapper postMapper;
@@ -23,31 +33,40 @@ public abstract class PostMapperDecorator implements PostMapper {
 
   @Override
   public PostDTO postToPostsDTO(Post post) {
+    return toDtoList(List.of(post)).get(0);
+  }
 
-    PostDTO postDTO = postMapper.postToPostsDTO(post);
-    postDTO.setLikes(likeRepository.countByPost(post));
-    postDTO.setType(getPostType(post));
-    postDTO.setComments(commentService.getComments(0, 5, post.getId()));
-    likeRepository.findLikesByPost(post).forEach(like -> {
-      if (like.getUser().getId().equals(CurrentUserUtils.getCurrentUser().getId())) {
-        postDTO.setMyLike(Boolean.TRUE);
-      }
-    });
-    return postDTO;
+  private PostType getPostType(Post post) {
+    if (Boolean.TRUE.equals(post.getIsDeleted())) {
+      return PostType.DELETED;
+    } else if (post.getUpdateTime().isBefore(post.getTime())) {
+      return PostType.QUEUED;
+    } else {
+      return PostType.POSTED;
+    }
   }
 
-    private PostType getPostType(Post post) {
-      if (Boolean.TRUE.equals(post.getIsDeleted())) {
-        return PostType.DELETED;
-      } else if (post.getUpdateTime().isBefore(post.getTime())) {
-        return PostType.QUEUED;
-      } else {
-        return PostType.POSTED;
-      }
+  @Override
+  public List<PostDTO> toDtoList(List<Post> postList) {
+    if (postList.isEmpty()) {
+      return List.of();
     }
+    var postIds = postList.stream().map(Post::getId).distinct().toList();
+    var likes = likeStoreService.summaries(LikeType.POST, postIds, CurrentUserUtils.getCurrentUser().getId());
+    var tags = postToTagRepository.findTagNamesByPostIdIn(postIds).stream()
+        .collect(Collectors.groupingBy(PostTagName::getPostId,
+            Collectors.mapping(PostTagName::getName, Collectors.toList())));
+    var comments = commentService.getCommentPreviews(postList, COMMENTS_PREVIEW_SIZE);
 
-    @Override
-    public List<PostDTO> toDtoList(List<Post> postList) {
-      return postList.stream().map(this::postToPostsDTO).toList();
+    return postList.stream().map(post -> {
+      PostDTO postDTO = postMapper.postToPostsDTO(post);
+      var like = likes.getOrDefault(post.getId(), LikeSummary.NONE);
+      postDTO.setLikes(like.count());
+      postDTO.setType(getPostType(post));
+      postDTO.setTags(tags.getOrDefault(post.getId(), List.of()));
+      postDTO.setComments(comments.get(post.getId()));
+      postDTO.setMyLike(like.liked());
+      return postDTO;
+    }).toList();
   }
-}
\ No newline at end of file
+}
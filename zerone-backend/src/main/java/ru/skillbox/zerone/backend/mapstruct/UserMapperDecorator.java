@@ -6,14 +6,16 @@ import ru.skillbox.zerone.backend.model.dto.request.RegisterRequestDTO;
 import ru.skillbox.zerone.backend.model.dto.response.UserDTO;
 import ru.skillbox.zerone.backend.model.entity.Role;
 import ru.skillbox.zerone.backend.model.entity.User;
-import ru.skillbox.zerone.backend.repository.FriendshipRepository;
-import ru.skillbox.zerone.backend.repository.WebSocketConnectionRepository;
+import ru.skillbox.zerone.backend.service.FriendGraph;
+import ru.skillbox.zerone.backend.service.PresenceService;
 import ru.skillbox.zerone.backend.service.RoleService;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.BLOCKED;
 
@@ -25,9 +27,9 @@ public abstract class UserMapperDecorator implements UserMapper {
   @Autowired
   private RoleService roleService;
   @Autowired
-  private WebSocketConnectionRepository webSocketConnectionRepository;
+  private PresenceService presenceService;
   @Autowired
-  private FriendshipRepository friendshipRepository;
+  private FriendGraph friendGraph;
 
   @Override
   public User registerRequestDTOToUser(RegisterRequestDTO registerRequestDTO, String confirmationCode, String photo) {
@@ -41,8 +43,23 @@ public abstract class UserMapperDecorator implements UserMapper {
 
   @Override
   public UserDTO userToUserDTO(User user) {
-    var userDTO = userMapper.userToUserDTO(user);
+    return toUserDTO(user, CurrentUserUtils.getCurrentUser(), presenceService.onlineAmong(List.of(user.getId())));
+  }
+
+  @Override
+  public List<UserDTO> usersToUserDTO(List<User> userList) {
+    if (userList == null) {
+      return null;
+    }
     var curUser = CurrentUserUtils.getCurrentUser();
+    var online = presenceService.onlineAmong(userList.stream().map(User::getId).toList());
+    return userList.stream()
+        .map(user -> toUserDTO(user, curUser, online))
+        .collect(Collectors.toList());
+  }
+
+  private UserDTO toUserDTO(User user, User curUser, Set<Long> online) {
+    var userDTO = userMapper.userToUserDTO(user);
     if (Boolean.TRUE.equals(user.getIsBlocked())) {
       userDTO.setFirstName("Пользователь");
       userDTO.setLastName(" заблокирован администрацией");
@@ -53,10 +70,12 @@ public abstract class UserMapperDecorator implements UserMapper {
     }
 
     userDTO.setBlockedByMe(
-        friendshipRepository.existsBySrcPersonAndDstPersonAndStatus(curUser, user, BLOCKED));
+        friendGraph.hasStatus(curUser.getId(), user.getId(), BLOCKED));
 
-    if (webSocketConnectionRepository.existsByUserId(user.getId().toString())) {
+    if (online.contains(user.getId())) {
       userDTO.setLastOnlineTime(LocalDateTime.now());
+    } else {
+      presenceService.lastSeen(user.getId()).ifPresent(userDTO::setLastOnlineTime);
     }
     return userDTO;
   }
@@ -2,7 +2,9 @@ package ru.skillbox.zerone.backend.model.dto.request;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
+import ru.skillbox.zerone.backend.util.ValidationUtils;
 
 import java.util.List;
 
@@ -11,5 +13,6 @@ import java.util.List;
 public class IsFriendsDTO {
   @Schema(description = "Список id пользователей, относительно которых нужно проверить статус")
   @JsonProperty("user_ids")
+  @Size(max = 100, message = "user ids " + ValidationUtils.SIZE_100_MAX_DESCRIPTION)
   private List<Long> userIds;
 }
@@ -25,6 +25,8 @@ public class CommentDTO {
   @JsonProperty("sub_comments")
   private List<CommentDTO> subComments;
   private int likes;
+  @JsonProperty("reply_count")
+  private int replyCount;
   @JsonProperty("my_like")
   private boolean myLike;
   @JsonProperty("images")
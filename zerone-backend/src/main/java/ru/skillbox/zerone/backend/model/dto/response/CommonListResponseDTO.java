@@ -17,16 +17,27 @@ import java.util.List;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Обобщенная модель данных для ответа, содержащего список сущностей")
 public class CommonListResponseDTO<T> {
-  @Schema(description = "Элементов всего")
-  private long total;
+  @Schema(description = "Элементов всего, не передается при выборке по курсору")
+  private Long total;
   @Schema(description = "Элементов на странице")
   private int perPage;
   @Schema(description = "Игнорировать первые N элементов")
   private int offset;
   private List<T> data;
+  @Schema(description = "Курсор следующей страницы")
+  private String nextCursor;
+  @Schema(description = "Курсор предыдущей страницы")
+  private String prevCursor;
   @Schema(description = "Сообщение в случае ошибки")
   private String error;
   @Builder.Default
   @Schema(description = "Метка времени ответа")
   private LocalDateTime timestamp = LocalDateTime.now();
+
+  public static class CommonListResponseDTOBuilder<T> {
+    public CommonListResponseDTOBuilder<T> total(long total) {
+      this.total = total;
+      return this;
+    }
+  }
 }
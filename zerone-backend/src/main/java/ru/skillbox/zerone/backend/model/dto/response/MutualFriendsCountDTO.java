@@ -0,0 +1,16 @@
+package ru.skillbox.zerone.backend.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(description = "Модель данных количества общих друзей с пользователем")
+public class MutualFriendsCountDTO {
+  @JsonProperty("user_id")
+  private Long userId;
+  @Schema(description = "Количество общих друзей")
+  private int count;
+}
@@ -0,0 +1,16 @@
+package ru.skillbox.zerone.backend.model.dto.socket.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReadMessagesResponseDTO {
+  @JsonProperty("dialog")
+  private long dialogId;
+  @JsonProperty("reader_id")
+  private long readerId;
+  @JsonProperty("last_read_message_id")
+  private long lastReadMessageId;
+}
@@ -10,8 +10,6 @@ import lombok.NoArgsConstructor;
 import ru.skillbox.zerone.backend.model.enumerated.CommentType;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
 @Table(name = "comment")
@@ -35,11 +33,11 @@ public class Comment {
   @Column(name = "type")
   private CommentType type;
 
-  @ManyToOne(fetch = FetchType.EAGER)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "post_id", referencedColumnName = "id")
   private Post post;
 
-  @ManyToOne(fetch = FetchType.EAGER)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "parent_id", referencedColumnName = "id")
   private Comment parent;
 
@@ -63,7 +61,8 @@ public class Comment {
   @Column(name = "is_deleted")
   private Boolean isDeleted = false;
 
-  @OneToMany(fetch = FetchType.EAGER)
-  @JoinColumn(name = "parent_id")
-  private List<Comment> comments = new ArrayList<>();
+  @NotNull
+  @Builder.Default
+  @Column(name = "reply_count", insertable = false, updatable = false)
+  private Integer replyCount = 0;
 }
@@ -28,4 +28,10 @@ public class Dialog {
   @ManyToOne(fetch = FetchType.EAGER)
   @JoinColumn(name = "recipient_id", referencedColumnName = "id")
   private User recipient;
+
+  @Column(name = "min_user_id", insertable = false, updatable = false)
+  private Long minUserId;
+
+  @Column(name = "max_user_id", insertable = false, updatable = false)
+  private Long maxUserId;
 }
@@ -0,0 +1,84 @@
+package ru.skillbox.zerone.backend.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.skillbox.zerone.backend.model.enumerated.ReadStatus;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "dialog_summary")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DialogSummary {
+  @Id
+  @Column(name = "dialog_id")
+  private Long dialogId;
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "sender_id", referencedColumnName = "id")
+  private User sender;
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "recipient_id", referencedColumnName = "id")
+  private User recipient;
+
+  @NotNull
+  @Column(name = "last_message_id")
+  private Long lastMessageId;
+
+  @NotNull
+  @Column(name = "last_message_author_id")
+  private Long lastMessageAuthorId;
+
+  @NotNull
+  @Column(name = "last_message_preview")
+  private String lastMessagePreview;
+
+  @NotNull
+  @Column(name = "last_message_time")
+  private LocalDateTime lastMessageTime;
+
+  @NotNull
+  @Column(name = "sender_unread_count")
+  private Integer senderUnreadCount;
+
+  @NotNull
+  @Column(name = "recipient_unread_count")
+  private Integer recipientUnreadCount;
+
+  @NotNull
+  @Builder.Default
+  @Column(name = "sender_last_read_message_id")
+  private Long senderLastReadMessageId = 0L;
+
+  @NotNull
+  @Builder.Default
+  @Column(name = "recipient_last_read_message_id")
+  private Long recipientLastReadMessageId = 0L;
+
+  public User companionOf(User user) {
+    return user.getId().equals(recipient.getId()) ? sender : recipient;
+  }
+
+  public int unreadCountOf(User user) {
+    return user.getId().equals(recipient.getId()) ? recipientUnreadCount : senderUnreadCount;
+  }
+
+  public long lastReadMessageIdOf(User user) {
+    return user.getId().equals(recipient.getId()) ? recipientLastReadMessageId : senderLastReadMessageId;
+  }
+
+  public ReadStatus lastMessageReadStatus() {
+    var unreadByReceiver = lastMessageAuthorId.equals(sender.getId()) ? recipientUnreadCount : senderUnreadCount;
+    return unreadByReceiver > 0 ? ReadStatus.SENT : ReadStatus.READ;
+  }
+}
@@ -0,0 +1,36 @@
+package ru.skillbox.zerone.backend.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "feed_item")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedItem {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private Long id;
+
+  @NotNull
+  @Column(name = "user_id")
+  private Long userId;
+
+  @NotNull
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "post_id", referencedColumnName = "id")
+  private Post post;
+
+  @NotNull
+  @Column(name = "time")
+  private LocalDateTime time;
+}
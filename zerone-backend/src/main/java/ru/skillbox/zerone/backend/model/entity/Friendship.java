@@ -29,12 +29,12 @@ public class Friendship {
   private FriendshipStatus status;
 
   @NotNull
-  @ManyToOne(fetch = FetchType.EAGER)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "src_person_id", referencedColumnName = "id")
   private User srcPerson;
 
   @NotNull
-  @ManyToOne(fetch = FetchType.EAGER)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "dst_person_id", referencedColumnName = "id")
   private User dstPerson;
 
@@ -43,4 +43,8 @@ public class Friendship {
   @UpdateTimestamp
   @Column(name = "time")
   private LocalDateTime time = LocalDateTime.now();
+
+  @Version
+  @Column(name = "version")
+  private Long version;
 }
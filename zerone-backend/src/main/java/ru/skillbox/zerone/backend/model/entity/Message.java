@@ -8,7 +8,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
-import ru.skillbox.zerone.backend.model.enumerated.ReadStatus;
 
 import java.time.LocalDateTime;
 
@@ -44,10 +43,4 @@ public class Message {
   @NotBlank
   @Column(name = "message_text", columnDefinition = "text")
   private String messageText;
-
-  @NotNull
-  @Builder.Default
-  @Column(name = "read_status")
-  @Enumerated(EnumType.STRING)
-  private ReadStatus readStatus = ReadStatus.SENT;
 }
@@ -60,6 +60,10 @@ public class Post {
   @Column(name = "is_deleted")
   private Boolean isDeleted = false;
 
+  @NotNull
+  @Builder.Default
+  @Column(name = "comment_count", insertable = false, updatable = false)
+  private Integer commentCount = 0;
 
   @ManyToMany(fetch = FetchType.LAZY)
   @JoinTable(name = "post_to_tag",
@@ -0,0 +1,33 @@
+package ru.skillbox.zerone.backend.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "recommendation_checkpoint")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecommendationCheckpoint {
+  @Id
+  @Column(name = "id")
+  private Long id;
+
+  @NotNull
+  @Column(name = "started_at")
+  private LocalDateTime startedAt;
+
+  @NotNull
+  @Column(name = "last_user_id")
+  private Long lastUserId;
+}
@@ -3,6 +3,7 @@ package ru.skillbox.zerone.backend.model.entity;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
+import org.springframework.data.redis.core.TimeToLive;
 import org.springframework.data.redis.core.index.Indexed;
 
 import java.io.Serializable;
@@ -18,4 +19,10 @@ public class WebSocketConnection implements Serializable {
   private UUID sessionId;
   @Indexed
   private String userId;
+  @TimeToLive
+  private Long ttl;
+
+  public WebSocketConnection(UUID sessionId, String userId) {
+    this(sessionId, userId, null);
+  }
 }
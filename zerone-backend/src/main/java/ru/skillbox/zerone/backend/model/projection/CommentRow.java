@@ -0,0 +1,25 @@
+package ru.skillbox.zerone.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface CommentRow {
+  Long getId();
+
+  Long getPostId();
+
+  Long getParentId();
+
+  Long getAuthorId();
+
+  String getCommentText();
+
+  LocalDateTime getTime();
+
+  String getType();
+
+  Boolean getIsBlocked();
+
+  Boolean getIsDeleted();
+
+  Integer getReplyCount();
+}
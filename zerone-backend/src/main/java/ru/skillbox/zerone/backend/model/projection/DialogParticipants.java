@@ -0,0 +1,13 @@
+package ru.skillbox.zerone.backend.model.projection;
+
+public interface DialogParticipants {
+  Long getId();
+
+  Long getSenderId();
+
+  String getSenderFirstName();
+
+  Long getRecipientId();
+
+  String getRecipientFirstName();
+}
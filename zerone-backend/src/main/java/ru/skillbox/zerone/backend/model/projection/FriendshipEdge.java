@@ -0,0 +1,11 @@
+package ru.skillbox.zerone.backend.model.projection;
+
+public interface FriendshipEdge {
+  Long getId();
+
+  Long getSrcId();
+
+  Long getDstId();
+
+  String getStatus();
+}
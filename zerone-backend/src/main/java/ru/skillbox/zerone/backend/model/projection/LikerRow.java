@@ -0,0 +1,9 @@
+package ru.skillbox.zerone.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface LikerRow {
+  Long getUserId();
+
+  LocalDateTime getTime();
+}
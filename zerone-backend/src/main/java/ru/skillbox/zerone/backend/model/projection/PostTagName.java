@@ -0,0 +1,7 @@
+package ru.skillbox.zerone.backend.model.projection;
+
+public interface PostTagName {
+  Long getPostId();
+
+  String getName();
+}
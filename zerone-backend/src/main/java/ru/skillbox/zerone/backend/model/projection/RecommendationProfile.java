@@ -0,0 +1,11 @@
+package ru.skillbox.zerone.backend.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface RecommendationProfile {
+  Long getId();
+
+  String getCity();
+
+  LocalDateTime getLastOnlineTime();
+}
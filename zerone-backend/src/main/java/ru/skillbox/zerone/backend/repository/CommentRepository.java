@@ -1,12 +1,97 @@
 package ru.skillbox.zerone.backend.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.skillbox.zerone.backend.model.entity.Comment;
+import ru.skillbox.zerone.backend.model.projection.CommentRow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-  Page<Comment> findCommentsByPostIdAndParentIsNull(long id, Pageable pageable);
+  @Query(value = """
+      SELECT t.id, t.post_id AS "postId", t.parent_id AS "parentId", t.author_id AS "authorId",
+             t.comment_text AS "commentText", t.time, CAST(t.type AS text) AS type,
+             t.is_blocked AS "isBlocked", t.is_deleted AS "isDeleted", t.reply_count AS "replyCount"
+      FROM (
+        SELECT c.*, row_number() OVER (PARTITION BY c.post_id ORDER BY c.time, c.id) AS rn
+        FROM comment c
+        WHERE c.post_id IN :postIds AND c.parent_id IS NULL
+      ) t
+      WHERE t.rn <= :limit
+      ORDER BY t.time, t.id
+      """, nativeQuery = true)
+  List<CommentRow> findFirstRootCommentsByPostIdIn(Collection<Long> postIds, int limit);
+
+  @Query(value = """
+      SELECT c.id, c.post_id AS "postId", c.parent_id AS "parentId", c.author_id AS "authorId",
+             c.comment_text AS "commentText", c.time, CAST(c.type AS text) AS type,
+             c.is_blocked AS "isBlocked", c.is_deleted AS "isDeleted", c.reply_count AS "replyCount"
+      FROM comment c
+      WHERE c.post_id = :postId AND c.parent_id IS NULL
+      ORDER BY c.time, c.id
+      OFFSET :offset LIMIT :limit
+      """, nativeQuery = true)
+  List<CommentRow> findRootCommentRows(long postId, int offset, int limit);
+
+  @Query(value = """
+      SELECT c.id, c.post_id AS "postId", c.parent_id AS "parentId", c.author_id AS "authorId",
+             c.comment_text AS "commentText", c.time, CAST(c.type AS text) AS type,
+             c.is_blocked AS "isBlocked", c.is_deleted AS "isDeleted", c.reply_count AS "replyCount"
+      FROM comment c
+      WHERE c.parent_id = :parentId
+      ORDER BY c.time, c.id
+      OFFSET :offset LIMIT :limit
+      """, nativeQuery = true)
+  List<CommentRow> findReplyRows(long parentId, int offset, int limit);
+
+  @Query(value = """
+      WITH RECURSIVE tree AS (
+        SELECT r.*, 1 AS depth
+        FROM comment p
+        CROSS JOIN LATERAL (
+          SELECT c.* FROM comment c WHERE c.parent_id = p.id ORDER BY c.time, c.id LIMIT :perLevel
+        ) r
+        WHERE p.id IN :parentIds
+        UNION ALL
+        SELECT r.*, t.depth + 1
+        FROM tree t
+        CROSS JOIN LATERAL (
+          SELECT c.* FROM comment c WHERE c.parent_id = t.id ORDER BY c.time, c.id LIMIT :perLevel
+        ) r
+        WHERE t.depth < :maxDepth
+      )
+      SELECT tree.id, tree.post_id AS "postId", tree.parent_id AS "parentId", tree.author_id AS "authorId",
+             tree.comment_text AS "commentText", tree.time, CAST(tree.type AS text) AS type,
+             tree.is_blocked AS "isBlocked", tree.is_deleted AS "isDeleted", tree.reply_count AS "replyCount"
+      FROM tree
+      ORDER BY tree.depth, tree.time, tree.id
+      """, nativeQuery = true)
+  List<CommentRow> findCommentTree(Collection<Long> parentIds, int maxDepth, int perLevel);
+
+  @Query("""
+      SELECT c.replyCount FROM Comment c WHERE c.id = :id AND c.post.id = :postId
+      """)
+  Optional<Integer> findReplyCountByIdAndPostId(long id, long postId);
+
+  @Modifying
+  @Query(value = """
+      UPDATE comment SET reply_count = reply_count + :delta WHERE id = :commentId
+      """, nativeQuery = true)
+  int changeReplyCount(long commentId, int delta);
+
+  @Modifying
+  @Query(value = """
+      UPDATE comment c SET reply_count = t.count FROM (
+        SELECT p.id, count(r.id) AS count FROM comment p
+        LEFT JOIN comment r ON r.parent_id = p.id
+        GROUP BY p.id
+      ) t
+      WHERE c.id = t.id AND c.reply_count <> t.count
+      """, nativeQuery = true)
+  int reconcileReplyCounts();
 }
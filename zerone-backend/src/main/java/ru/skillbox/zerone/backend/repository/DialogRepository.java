@@ -1,12 +1,10 @@
 package ru.skillbox.zerone.backend.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.skillbox.zerone.backend.model.entity.Dialog;
-import ru.skillbox.zerone.backend.model.entity.User;
-import ru.skillbox.zerone.backend.model.enumerated.ReadStatus;
+import ru.skillbox.zerone.backend.model.projection.DialogParticipants;
 
 import java.util.Optional;
 
@@ -14,24 +12,25 @@ public interface DialogRepository extends JpaRepository<Dialog, Long> {
 
   @Query("""
       SELECT d FROM Dialog d
-      WHERE
-      (d.recipient = :firstUser AND d.sender = :secondUser)
-       OR (d.recipient = :secondUser AND d.sender = :firstUser)
-       """)
-  Optional<Dialog> findByUserDuet(User firstUser, User secondUser);
-
-  @Query("""
-      SELECT d FROM Dialog d
-      WHERE d.recipient = :user OR d.sender = :user
+      WHERE d.minUserId = :minUserId AND d.maxUserId = :maxUserId
       """)
-  Page<Dialog> getPageOfDialogsByUser(User user, Pageable pageable);
+  Optional<Dialog> findByPairKey(long minUserId, long maxUserId);
 
   @Query("""
-      SELECT count (d) FROM Dialog d, Message m
-      WHERE m.dialog = d AND m.readStatus = :readStatus AND m.author != :user
-        AND (d.sender = :user OR d.recipient = :user)
+      SELECT d.id AS id, s.id AS senderId, s.firstName AS senderFirstName,
+             r.id AS recipientId, r.firstName AS recipientFirstName
+      FROM Dialog d JOIN d.sender s JOIN d.recipient r
+      WHERE d.id = :id
       """)
-  long countUnreadMessagesByUser(User user, ReadStatus readStatus);
+  Optional<DialogParticipants> findParticipantsById(long id);
+
+  @Modifying
+  @Query(value = """
+      INSERT INTO dialog (sender_id, recipient_id)
+      VALUES (:senderId, :recipientId)
+      ON CONFLICT (min_user_id, max_user_id) DO NOTHING
+      """, nativeQuery = true)
+  int insertIfAbsent(long senderId, long recipientId);
 
   @Query("""
        SELECT d FROM Dialog d, Message m
@@ -0,0 +1,98 @@
+package ru.skillbox.zerone.backend.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.skillbox.zerone.backend.model.entity.DialogSummary;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.projection.IdCount;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface DialogSummaryRepository extends JpaRepository<DialogSummary, Long> {
+
+  @Query(value = """
+      SELECT s FROM DialogSummary s
+      JOIN FETCH s.sender
+      JOIN FETCH s.recipient
+      WHERE s.sender = :user OR s.recipient = :user
+      ORDER BY s.lastMessageTime DESC, s.dialogId DESC
+      """,
+      countQuery = """
+      SELECT count(s) FROM DialogSummary s
+      WHERE s.sender = :user OR s.recipient = :user
+      """)
+  Page<DialogSummary> findPageByUser(User user, Pageable pageable);
+
+  @Query("""
+      SELECT s FROM DialogSummary s
+      JOIN FETCH s.sender
+      JOIN FETCH s.recipient
+      WHERE s.dialogId = :dialogId
+      """)
+  Optional<DialogSummary> findByDialogId(long dialogId);
+
+  @Modifying
+  @Query(value = """
+      INSERT INTO dialog_summary (dialog_id, sender_id, recipient_id, last_message_id, last_message_author_id,
+          last_message_preview, last_message_time, sender_unread_count, recipient_unread_count)
+      SELECT d.id, d.sender_id, d.recipient_id, :messageId, :authorId, :preview, :time,
+          CASE WHEN :unread AND d.sender_id <> :authorId THEN 1 ELSE 0 END,
+          CASE WHEN :unread AND d.recipient_id <> :authorId THEN 1 ELSE 0 END
+      FROM dialog d
+      WHERE d.id = :dialogId
+      ON CONFLICT (dialog_id) DO UPDATE SET
+          last_message_id = GREATEST(dialog_summary.last_message_id, EXCLUDED.last_message_id),
+          last_message_author_id = CASE WHEN EXCLUDED.last_message_id > dialog_summary.last_message_id
+              THEN EXCLUDED.last_message_author_id ELSE dialog_summary.last_message_author_id END,
+          last_message_preview = CASE WHEN EXCLUDED.last_message_id > dialog_summary.last_message_id
+              THEN EXCLUDED.last_message_preview ELSE dialog_summary.last_message_preview END,
+          last_message_time = CASE WHEN EXCLUDED.last_message_id > dialog_summary.last_message_id
+              THEN EXCLUDED.last_message_time ELSE dialog_summary.last_message_time END,
+          sender_unread_count = dialog_summary.sender_unread_count + EXCLUDED.sender_unread_count,
+          recipient_unread_count = dialog_summary.recipient_unread_count + EXCLUDED.recipient_unread_count
+      """, nativeQuery = true)
+  void registerMessage(long dialogId, long messageId, long authorId, String preview, LocalDateTime time, boolean unread);
+
+  @Modifying
+  @Query(value = """
+      UPDATE dialog_summary SET
+          sender_last_read_message_id = CASE WHEN sender_id = :readerId
+              THEN :messageId ELSE sender_last_read_message_id END,
+          recipient_last_read_message_id = CASE WHEN recipient_id = :readerId
+              THEN :messageId ELSE recipient_last_read_message_id END,
+          sender_unread_count = CASE WHEN sender_id = :readerId
+              THEN (SELECT count(*) FROM message m
+                  WHERE m.dialog_id = :dialogId AND m.id > :messageId AND m.author_id <> :readerId)
+              ELSE sender_unread_count END,
+          recipient_unread_count = CASE WHEN recipient_id = :readerId
+              THEN (SELECT count(*) FROM message m
+                  WHERE m.dialog_id = :dialogId AND m.id > :messageId AND m.author_id <> :readerId)
+              ELSE recipient_unread_count END
+      WHERE dialog_id = :dialogId
+        AND (sender_id = :readerId AND sender_last_read_message_id < :messageId
+          OR recipient_id = :readerId AND recipient_last_read_message_id < :messageId)
+      """, nativeQuery = true)
+  int markRead(long dialogId, long readerId, long messageId);
+
+  @Query(value = """
+      SELECT s.dialog_id AS "id",
+          CAST(CASE WHEN s.sender_id = :userId THEN s.sender_unread_count ELSE s.recipient_unread_count END AS BIGINT)
+          AS "count"
+      FROM dialog_summary s
+      WHERE s.sender_id = :userId AND s.sender_unread_count > 0
+        OR s.recipient_id = :userId AND s.recipient_unread_count > 0
+      """, nativeQuery = true)
+  List<IdCount> findUnreadCountsByUser(long userId);
+
+  @Query(value = """
+      SELECT CASE WHEN s.sender_id = :userId THEN s.sender_unread_count ELSE s.recipient_unread_count END
+      FROM dialog_summary s
+      WHERE s.dialog_id = :dialogId
+      """, nativeQuery = true)
+  Optional<Integer> findUnreadCount(long dialogId, long userId);
+}
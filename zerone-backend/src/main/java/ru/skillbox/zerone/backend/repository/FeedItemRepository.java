@@ -0,0 +1,95 @@
+package ru.skillbox.zerone.backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.skillbox.zerone.backend.model.entity.FeedItem;
+import ru.skillbox.zerone.backend.model.entity.Post;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FeedItemRepository extends JpaRepository<FeedItem, Long> {
+
+  @Query("""
+      SELECT p FROM FeedItem f JOIN f.post p
+      WHERE f.userId = :userId AND f.time <= :now AND p.isDeleted = false
+      ORDER BY f.time DESC, p.id DESC
+      """)
+  Slice<Post> getPostsForFeed(long userId, LocalDateTime now, Pageable pageable);
+
+  @Query("""
+      SELECT p FROM FeedItem f JOIN f.post p
+      WHERE f.userId = :userId AND f.time <= :now AND p.isDeleted = false
+        AND (f.time < :time OR (f.time = :time AND p.id < :postId))
+      ORDER BY f.time DESC, p.id DESC
+      """)
+  Slice<Post> getPostsForFeedBefore(long userId, LocalDateTime now, LocalDateTime time, long postId, Pageable pageable);
+
+  @Modifying
+  @Query(value = """
+      INSERT INTO feed_item (user_id, post_id, time)
+      SELECT f.src_person_id, :postId, :time FROM friendship f
+      WHERE f.dst_person_id = :authorId AND f.status IN ('FRIEND', 'SUBSCRIBED')
+      ON CONFLICT (user_id, post_id) DO NOTHING
+      """, nativeQuery = true)
+  int fanOut(long authorId, long postId, LocalDateTime time);
+
+  @Modifying
+  @Query(value = """
+      UPDATE feed_item SET time = :time WHERE post_id = :postId
+      """, nativeQuery = true)
+  int updateTimeByPostId(long postId, LocalDateTime time);
+
+  @Modifying
+  @Query(value = """
+      DELETE FROM feed_item fi USING post p
+      WHERE fi.post_id = p.id AND fi.user_id = :userId AND p.author_id = :authorId
+      """, nativeQuery = true)
+  int deleteByUserIdAndAuthorId(long userId, long authorId);
+
+  @Modifying
+  @Query(value = """
+      INSERT INTO feed_item (user_id, post_id, time)
+      SELECT t.user_id, t.post_id, t.time FROM (
+        SELECT f.src_person_id AS user_id, p.id AS post_id, p.time AS time,
+               row_number() OVER (PARTITION BY f.src_person_id ORDER BY p.time DESC, p.id DESC) AS rn
+        FROM friendship f
+        JOIN post p ON p.author_id = f.dst_person_id
+        WHERE f.src_person_id IN :userIds AND f.status IN ('FRIEND', 'SUBSCRIBED') AND p.is_deleted = false
+      ) t
+      WHERE t.rn <= :maxSize
+      ON CONFLICT (user_id, post_id) DO NOTHING
+      """, nativeQuery = true)
+  int backfill(List<Long> userIds, int maxSize);
+
+  @Modifying
+  @Query(value = """
+      INSERT INTO feed_item (user_id, post_id, time)
+      SELECT f.src_person_id, p.id, p.time
+      FROM friendship f
+      JOIN post p ON p.author_id = f.dst_person_id
+      WHERE f.src_person_id = :userId AND f.dst_person_id = :authorId
+        AND f.status IN ('FRIEND', 'SUBSCRIBED') AND p.is_deleted = false
+      ORDER BY p.time DESC
+      LIMIT :maxSize
+      ON CONFLICT (user_id, post_id) DO NOTHING
+      """, nativeQuery = true)
+  int backfillFromAuthor(long userId, long authorId, int maxSize);
+
+  @Modifying
+  @Query(value = """
+      DELETE FROM feed_item WHERE id IN (
+        SELECT t.id FROM (
+          SELECT fi.id, row_number() OVER (PARTITION BY fi.user_id ORDER BY fi.time DESC, fi.post_id DESC) AS rn
+          FROM feed_item fi
+        ) t
+        WHERE t.rn > :maxSize
+      )
+      """, nativeQuery = true)
+  int trim(int maxSize);
+}
@@ -2,11 +2,13 @@ package ru.skillbox.zerone.backend.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.skillbox.zerone.backend.model.entity.Friendship;
 import ru.skillbox.zerone.backend.model.entity.User;
 import ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus;
+import ru.skillbox.zerone.backend.model.projection.FriendshipEdge;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,14 @@ import java.util.Optional;
 public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
   Optional<Friendship> findBySrcPersonAndDstPerson(User srcUser, User dstUser);
 
+  @Query("""
+      SELECT f FROM Friendship f
+      WHERE f.srcPerson.id = :userId AND f.dstPerson.id = :otherId
+      OR f.srcPerson.id = :otherId AND f.dstPerson.id = :userId
+      """)
+  List<Friendship> findPair(long userId, long otherId);
+
+  @EntityGraph(attributePaths = "dstPerson")
   Page<Friendship> findAllBySrcPersonAndStatus(User srcUser, FriendshipStatus status, Pageable pageable);
 
   @Query("""
@@ -22,12 +32,18 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
       AND (LOWER(f.dstPerson.firstName) LIKE LOWER(CONCAT('%', :name, '%'))
       OR LOWER(f.dstPerson.lastName) LIKE LOWER(CONCAT('%', :name, '%')))
       """)
+  @EntityGraph(attributePaths = "dstPerson")
   Page<Friendship> findAllBySrcPersonAndStatusAndDstPersonNameLike(
       User srcUser, FriendshipStatus status, String name, Pageable pageable);
 
-  List<Friendship> findAllBySrcPersonAndDstPersonIdIn(User user, List<Long> userIds);
-
   List<Friendship> findAllBySrcPersonAndStatus(User srcUser, FriendshipStatus status);
 
-  boolean existsBySrcPersonAndDstPersonAndStatus(User srcUser, User dstUser, FriendshipStatus status);
+  @Query(value = """
+      SELECT f.id, f.src_person_id AS "srcId", f.dst_person_id AS "dstId", CAST(f.status AS text) AS status
+      FROM friendship f
+      WHERE (f.src_person_id, f.dst_person_id, f.id) > (:srcId, :dstId, :id)
+      ORDER BY f.src_person_id, f.dst_person_id, f.id
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<FriendshipEdge> findEdgesAfter(long srcId, long dstId, long id, int limit);
 }
@@ -1,13 +1,16 @@
 package ru.skillbox.zerone.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.skillbox.zerone.backend.model.entity.Comment;
 import ru.skillbox.zerone.backend.model.entity.Like;
 import ru.skillbox.zerone.backend.model.entity.Post;
 import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.projection.LikerRow;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -31,5 +34,40 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
 
   Optional<Like> findByUserAndComment(User user, Comment comment);
 
+  @Query("""
+      SELECT L.user.id AS userId, L.time AS time FROM Like L WHERE L.post.id = :postId
+      """)
+  List<LikerRow> findPostLikers(long postId);
+
+  @Query("""
+      SELECT L.user.id AS userId, L.time AS time FROM Like L WHERE L.comment.id = :commentId
+      """)
+  List<LikerRow> findCommentLikers(long commentId);
+
+  @Modifying
+  @Query(value = """
+      INSERT INTO "like" (time, type, post_id, user_id) VALUES (:time, 'POST', :postId, :userId)
+      ON CONFLICT (user_id, post_id) WHERE post_id IS NOT NULL DO NOTHING
+      """, nativeQuery = true)
+  int insertPostLike(long userId, long postId, LocalDateTime time);
+
+  @Modifying
+  @Query(value = """
+      INSERT INTO "like" (time, type, comment_id, user_id) VALUES (:time, 'COMMENT', :commentId, :userId)
+      ON CONFLICT (user_id, comment_id) WHERE comment_id IS NOT NULL DO NOTHING
+      """, nativeQuery = true)
+  int insertCommentLike(long userId, long commentId, LocalDateTime time);
+
+  @Modifying
+  @Query(value = """
+      DELETE FROM "like" WHERE user_id = :userId AND post_id = :postId
+      """, nativeQuery = true)
+  int deletePostLike(long userId, long postId);
+
+  @Modifying
+  @Query(value = """
+      DELETE FROM "like" WHERE user_id = :userId AND comment_id = :commentId
+      """, nativeQuery = true)
+  int deleteCommentLike(long userId, long commentId);
 
 }
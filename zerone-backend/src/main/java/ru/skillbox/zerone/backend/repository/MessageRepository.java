@@ -5,16 +5,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.skillbox.zerone.backend.model.entity.Dialog;
 import ru.skillbox.zerone.backend.model.entity.Message;
-import ru.skillbox.zerone.backend.model.entity.User;
-import ru.skillbox.zerone.backend.model.enumerated.ReadStatus;
 
-import java.util.Optional;
+import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-  Optional<Message> findFirstByDialogOrderBySentTimeDesc(Dialog dialog);
+  Page<Message> findByDialog(Dialog dialog, Pageable pageable);
 
-  int countByDialogAndAuthorAndReadStatus(Dialog dialog, User author, ReadStatus status);
+  List<Message> findByDialogAndIdLessThanOrderByIdDesc(Dialog dialog, long id, Pageable pageable);
 
-  Page<Message> findByDialog(Dialog dialog, Pageable pageable);
+  List<Message> findByDialogAndIdGreaterThanOrderByIdAsc(Dialog dialog, long id, Pageable pageable);
+
+  List<Message> findByDialogAndIdGreaterThanEqualOrderByIdAsc(Dialog dialog, long id, Pageable pageable);
+
+  boolean existsByDialogAndIdGreaterThanEqual(Dialog dialog, long id);
+
+  boolean existsByDialogAndIdLessThanEqual(Dialog dialog, long id);
 }
@@ -2,24 +2,51 @@ package ru.skillbox.zerone.backend.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.skillbox.zerone.backend.model.entity.Post;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
   @Query("""
-      SELECT p FROM Post p where p.author.id = :id ORDER BY p.updateTime DESC
+      SELECT p FROM Post p where p.author.id = :id ORDER BY p.updateTime DESC, p.id DESC
       """)
   Page<Post> getPostsForUsersWall(long id, Pageable pageable);
 
   @Query("""
-      SELECT p FROM Post p where p.author.id <> :id
-      and (p.updateTime > p.time or p.updateTime = p.time)
-      and p.isDeleted = false ORDER BY p.updateTime DESC
+      SELECT p FROM Post p where p.author.id = :id
+      and (p.updateTime < :updateTime or (p.updateTime = :updateTime and p.id < :postId))
+      ORDER BY p.updateTime DESC, p.id DESC
+      """)
+  Slice<Post> getPostsForUsersWallBefore(long id, LocalDateTime updateTime, long postId, Pageable pageable);
+
+  @Query("""
+      SELECT p.commentCount FROM Post p WHERE p.id = :id
       """)
-  Page<Post> getPostsForFeeds(long id, Pageable pageable);
+  Optional<Integer> findCommentCountById(long id);
+
+  @Modifying
+  @Query(value = """
+      UPDATE post SET comment_count = comment_count + :delta WHERE id = :postId
+      """, nativeQuery = true)
+  int changeCommentCount(long postId, int delta);
+
+  @Modifying
+  @Query(value = """
+      UPDATE post p SET comment_count = t.count FROM (
+        SELECT p2.id, count(c.id) AS count FROM post p2
+        LEFT JOIN comment c ON c.post_id = p2.id AND c.parent_id IS NULL
+        GROUP BY p2.id
+      ) t
+      WHERE p.id = t.id AND p.comment_count <> t.count
+      """, nativeQuery = true)
+  int reconcileCommentCounts();
 }
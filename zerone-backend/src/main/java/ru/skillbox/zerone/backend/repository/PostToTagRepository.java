@@ -1,7 +1,19 @@
 package ru.skillbox.zerone.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.skillbox.zerone.backend.model.entity.PostToTag;
+import ru.skillbox.zerone.backend.model.projection.PostTagName;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface PostToTagRepository extends JpaRepository<PostToTag, Long> {
+
+  @Query("""
+      SELECT pt.post.id AS postId, pt.tag.name AS name FROM PostToTag pt
+      WHERE pt.post.id IN :postIds
+      ORDER BY pt.id
+      """)
+  List<PostTagName> findTagNamesByPostIdIn(Collection<Long> postIds);
 }
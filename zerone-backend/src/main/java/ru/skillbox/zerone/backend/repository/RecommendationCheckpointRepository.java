@@ -0,0 +1,7 @@
+package ru.skillbox.zerone.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.skillbox.zerone.backend.model.entity.RecommendationCheckpoint;
+
+public interface RecommendationCheckpointRepository extends JpaRepository<RecommendationCheckpoint, Long> {
+}
@@ -1,19 +1,42 @@
 package ru.skillbox.zerone.backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.skillbox.zerone.backend.model.entity.Recommendation;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 
 public interface RecommendationRepository extends JpaRepository<Recommendation, Long> {
+  Optional<Recommendation> findById(Long id);
+
   @Query(value = """
-      SELECT r.dstPerson.id FROM Friendship r
-      WHERE r.srcPerson.id = :id
-      """)
-  List<Long> findFriendships(Long id);
+      SELECT u.id FROM "user" u
+      LEFT JOIN recommendation r ON r.id = u.id
+      WHERE u.id > :lastUserId
+      AND u.is_blocked = false
+      AND u.is_deleted = false
+      AND u.is_approved = true
+      AND (r.updated_at IS NULL OR u.friends_changed_at > r.updated_at)
+      ORDER BY u.id
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<Long> findStaleUserIds(long lastUserId, int limit);
 
-  Optional<Recommendation> findById(Long id);
+  @Modifying
+  @Query(value = """
+      INSERT INTO recommendation (id, recommended_friends, updated_at)
+      SELECT p.id,
+             ARRAY(SELECT CAST(e.value AS bigint)
+                   FROM jsonb_array_elements_text(p.friends) WITH ORDINALITY AS e(value, position)
+                   ORDER BY e.position),
+             :updatedAt
+      FROM jsonb_to_recordset(CAST(:payload AS jsonb)) AS p(id bigint, friends jsonb)
+      ON CONFLICT (id) DO UPDATE
+      SET recommended_friends = EXCLUDED.recommended_friends, updated_at = EXCLUDED.updated_at
+      """, nativeQuery = true)
+  int upsertAll(String payload, LocalDateTime updatedAt);
 }
@@ -3,10 +3,13 @@ package ru.skillbox.zerone.backend.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.projection.RecommendationProfile;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,14 +24,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
   List<User> findUsersByIdIn(List<Long> ids);
 
   @Query(value = """
-      SELECT u.id FROM User u
-      WHERE u.city = :city
-      AND u.isDeleted = false
-      AND u.isBlocked = false
-      AND u.isApproved = true
-
+      SELECT DISTINCT u FROM User u
+      LEFT JOIN FETCH u.roles
+      WHERE u.id IN :ids
       """)
-  Page<Long> findUsersByCity(String city, Pageable pageable);
+  List<User> findUsersWithRolesByIdIn(Collection<Long> ids);
 
   @Query(value = """
       SELECT u.id FROM User u
@@ -39,10 +39,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
       """)
   Page<Long> findAllUsersId(Pageable pageable);
   @Query(value = """
-      SELECT u FROM User u
-      WHERE u.isBlocked = false
+      SELECT u.id AS id, u.city AS city, u.lastOnlineTime AS lastOnlineTime FROM User u
+      WHERE u.id IN :ids
+      AND u.isBlocked = false
       AND u.isDeleted = false
       AND u.isApproved = true
       """)
-  List<User> findAllUsers();
-}
\ No newline at end of file
+  List<RecommendationProfile> findRecommendationProfilesByIdIn(Collection<Long> ids);
+
+  @Query(value = """
+      SELECT u.id FROM User u
+      WHERE u.city = :city
+      AND u.isDeleted = false
+      AND u.isBlocked = false
+      AND u.isApproved = true
+      ORDER BY u.lastOnlineTime DESC
+      """)
+  List<Long> findRecentlyOnlineIdsByCity(String city, Pageable pageable);
+
+  @Query(value = """
+      SELECT u.id FROM User u
+      WHERE u.isDeleted = false
+      AND u.isBlocked = false
+      AND u.isApproved = true
+      ORDER BY u.lastOnlineTime DESC
+      """)
+  List<Long> findRecentlyOnlineIds(Pageable pageable);
+
+  @Modifying
+  @Query(value = """
+      UPDATE "user" u SET last_online_time = p.time
+      FROM jsonb_to_recordset(CAST(:payload AS jsonb)) AS p(id bigint, time timestamp)
+      WHERE u.id = p.id AND (u.last_online_time IS NULL OR u.last_online_time < p.time)
+      """, nativeQuery = true)
+  int updateLastOnlineTimes(String payload);
+}
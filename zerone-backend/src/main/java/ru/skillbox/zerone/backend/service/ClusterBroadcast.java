@@ -0,0 +1,57 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterBroadcast {
+  private static final String CHANNEL_PREFIX = "cluster:broadcast:";
+
+  private final StringRedisTemplate redisTemplate;
+  private final RedisMessageListenerContainer listenerContainer;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Value("${websocket.cluster.node-id}")
+  private String nodeId;
+
+  public <T> void subscribe(String topic, Class<T> type, Consumer<T> handler) {
+    listenerContainer.addMessageListener((message, pattern) -> receive(topic, message.getBody(), type, handler),
+        new ChannelTopic(CHANNEL_PREFIX + topic));
+  }
+
+  public void publish(String topic, Object payload) {
+    try {
+      var body = objectMapper.writeValueAsString(new Broadcast(nodeId, objectMapper.valueToTree(payload)));
+      redisTemplate.convertAndSend(CHANNEL_PREFIX + topic, body);
+    } catch (IOException | RuntimeException e) {
+      log.warn(String.format("Cluster broadcast to %s failed: %s", topic, e.getMessage()));
+    }
+  }
+
+  private <T> void receive(String topic, byte[] body, Class<T> type, Consumer<T> handler) {
+    try {
+      var broadcast = objectMapper.readValue(body, Broadcast.class);
+      if (nodeId.equals(broadcast.node())) {
+        return;
+      }
+      handler.accept(objectMapper.treeToValue(broadcast.payload(), type));
+    } catch (IOException e) {
+      log.warn(String.format("Cluster broadcast from %s was not parsed: %s", topic, e.getMessage()));
+    }
+  }
+
+  record Broadcast(String node, JsonNode payload) {
+  }
+}
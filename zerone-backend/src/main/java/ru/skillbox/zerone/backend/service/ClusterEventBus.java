@@ -0,0 +1,256 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterEventBus {
+  private static final String ROUTE_KEY_PREFIX = "socket:route:";
+  private static final String NODE_CHANNEL_PREFIX = "socket:node:";
+  private static final String NODE_ALIVE_KEY_PREFIX = "socket:alive:";
+  private static final TypeReference<List<Envelope>> BATCH_TYPE = new TypeReference<>() {
+  };
+
+  private final SocketSessionRegistry sessionRegistry;
+  private final StringRedisTemplate redisTemplate;
+  private final RedisMessageListenerContainer listenerContainer;
+  private final MeterRegistry meterRegistry;
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+  @Value("${websocket.cluster.node-id}")
+  private String nodeId;
+  @Value("${websocket.cluster.batch-size}")
+  private int batchSize;
+  @Value("${websocket.cluster.queue-capacity}")
+  private int queueCapacity;
+  @Value("${websocket.cluster.flush-delay}")
+  private long flushDelay;
+  @Value("${websocket.lease.ttl}")
+  private long leaseTtl;
+  @Value("${websocket.lease.scan-count}")
+  private int scanCount;
+
+  private BlockingQueue<Envelope> outbound;
+  private ScheduledExecutorService executor;
+  private MessageListener listener;
+  private Counter published;
+  private Counter batches;
+  private Counter received;
+  private Counter dropped;
+  private Counter reapedRoutes;
+
+  @PostConstruct
+  public void start() {
+    outbound = new LinkedBlockingQueue<>(queueCapacity);
+    Gauge.builder("socket.cluster.outbound.backlog", outbound, Collection::size)
+        .description("Socket events waiting to be published to other nodes")
+        .register(meterRegistry);
+    published = meterRegistry.counter("socket.cluster.published");
+    batches = meterRegistry.counter("socket.cluster.batches");
+    received = meterRegistry.counter("socket.cluster.received");
+    dropped = meterRegistry.counter("socket.cluster.dropped");
+    reapedRoutes = meterRegistry.counter("socket.cluster.routes.reaped");
+    heartbeat();
+
+    listener = (message, pattern) -> deliver(message.getBody());
+    listenerContainer.addMessageListener(listener, new ChannelTopic(channel(nodeId)));
+
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "socket-cluster-publisher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(this::flush, flushDelay, flushDelay, TimeUnit.MILLISECONDS);
+    log.info(String.format("Socket cluster node %s started", nodeId));
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdown();
+    flush();
+    listenerContainer.removeMessageListener(listener);
+    sessionRegistry.users().forEach(this::left);
+    redisTemplate.delete(aliveKey(nodeId));
+  }
+
+  public void publish(long userId, String event, Object payload) {
+    sessionRegistry.clients(userId).forEach(client -> client.sendEvent(event, payload));
+    if (!outbound.offer(new Envelope(userId, event, objectMapper.valueToTree(payload)))) {
+      dropped.increment();
+    }
+  }
+
+  public void joined(long userId) {
+    redisTemplate.opsForSet().add(routeKey(userId), nodeId);
+  }
+
+  public void left(long userId) {
+    redisTemplate.opsForSet().remove(routeKey(userId), nodeId);
+    if (sessionRegistry.isConnected(userId)) {
+      joined(userId);
+    }
+  }
+
+  public void heartbeat() {
+    redisTemplate.opsForValue().set(aliveKey(nodeId), "1", Duration.ofSeconds(leaseTtl));
+  }
+
+  public int reapRoutes() {
+    int reaped = 0;
+    var alive = new HashMap<String, Boolean>();
+    var options = ScanOptions.scanOptions().match(ROUTE_KEY_PREFIX + "*").count(scanCount).build();
+    try (var cursor = redisTemplate.scan(options)) {
+      while (cursor.hasNext()) {
+        var key = cursor.next();
+        var nodes = redisTemplate.opsForSet().members(key);
+        if (nodes == null || nodes.isEmpty()) {
+          continue;
+        }
+        checkAlive(nodes, alive);
+        var dead = nodes.stream().filter(node -> !alive.get(node)).toArray();
+        if (dead.length > 0) {
+          var removed = redisTemplate.opsForSet().remove(key, dead);
+          reaped += removed == null ? 0 : removed.intValue();
+        }
+      }
+    }
+    reapedRoutes.increment(reaped);
+    return reaped;
+  }
+
+  private void checkAlive(Collection<String> nodes, Map<String, Boolean> alive) {
+    var unknown = nodes.stream().filter(node -> !alive.containsKey(node)).toList();
+    if (unknown.isEmpty()) {
+      return;
+    }
+    var results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      unknown.forEach(node -> connection.keyCommands().exists(aliveKey(node).getBytes(StandardCharsets.UTF_8)));
+      return null;
+    });
+    for (int i = 0; i < unknown.size(); i++) {
+      alive.put(unknown.get(i), Boolean.TRUE.equals(results.get(i)));
+    }
+  }
+
+  public Set<Long> connectedAnywhere(List<Long> userIds) {
+    var sizes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      userIds.forEach(userId -> connection.setCommands()
+          .sCard(routeKey(userId).getBytes(StandardCharsets.UTF_8)));
+      return null;
+    });
+    var connected = new HashSet<Long>();
+    for (int i = 0; i < userIds.size(); i++) {
+      if (sizes.get(i) instanceof Long size && size > 0) {
+        connected.add(userIds.get(i));
+      }
+    }
+    return connected;
+  }
+
+  void flush() {
+    var batch = new ArrayList<Envelope>(batchSize);
+    while (outbound.drainTo(batch, batchSize) > 0) {
+      try {
+        route(batch).forEach(this::send);
+      } catch (RuntimeException e) {
+        dropped.increment(batch.size());
+        log.warn(String.format("Socket cluster publish failed for %d events: %s", batch.size(), e.getMessage()));
+      }
+      batch.clear();
+    }
+  }
+
+  private Map<String, List<Envelope>> route(List<Envelope> batch) {
+    var userIds = batch.stream().map(Envelope::userId).distinct().toList();
+    var routes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      userIds.forEach(userId -> connection.setCommands()
+          .sMembers(routeKey(userId).getBytes(StandardCharsets.UTF_8)));
+      return null;
+    });
+    var nodesByUser = new HashMap<Long, Collection<?>>();
+    for (int i = 0; i < userIds.size(); i++) {
+      nodesByUser.put(userIds.get(i), (Collection<?>) routes.get(i));
+    }
+
+    var byNode = new HashMap<String, List<Envelope>>();
+    batch.forEach(envelope -> nodesByUser.get(envelope.userId()).stream()
+        .map(Object::toString)
+        .filter(node -> !node.equals(nodeId))
+        .forEach(node -> byNode.computeIfAbsent(node, n -> new ArrayList<>()).add(envelope)));
+    return byNode;
+  }
+
+  private void send(String node, List<Envelope> envelopes) {
+    try {
+      redisTemplate.convertAndSend(channel(node), objectMapper.writeValueAsString(envelopes));
+      published.increment(envelopes.size());
+      batches.increment();
+    } catch (JsonProcessingException e) {
+      dropped.increment(envelopes.size());
+      log.warn(String.format("Socket cluster batch for node %s was not serialized: %s", node, e.getMessage()));
+    }
+  }
+
+  private void deliver(byte[] body) {
+    try {
+      var envelopes = objectMapper.readValue(body, BATCH_TYPE);
+      envelopes.forEach(envelope -> sessionRegistry.clients(envelope.userId())
+          .forEach(client -> client.sendEvent(envelope.event(), envelope.payload())));
+      received.increment(envelopes.size());
+    } catch (IOException e) {
+      log.warn(String.format("Socket cluster batch was not parsed: %s", e.getMessage()));
+    }
+  }
+
+  private static String routeKey(long userId) {
+    return ROUTE_KEY_PREFIX + userId;
+  }
+
+  private static String aliveKey(String node) {
+    return NODE_ALIVE_KEY_PREFIX + node;
+  }
+
+  private static String channel(String node) {
+    return NODE_CHANNEL_PREFIX + node;
+  }
+
+  record Envelope(long userId, String event, JsonNode payload) {
+  }
+}
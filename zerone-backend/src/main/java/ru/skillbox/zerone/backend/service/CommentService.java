@@ -1,11 +1,10 @@
 package ru.skillbox.zerone.backend.service;
 
-
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import ru.skillbox.zerone.backend.exception.CommentNotFoundException;
 import ru.skillbox.zerone.backend.exception.PostNotFoundException;
@@ -16,37 +15,129 @@ import ru.skillbox.zerone.backend.model.dto.response.CommentDTO;
 import ru.skillbox.zerone.backend.model.dto.response.CommonListResponseDTO;
 import ru.skillbox.zerone.backend.model.dto.response.CommonResponseDTO;
 import ru.skillbox.zerone.backend.model.entity.Comment;
+import ru.skillbox.zerone.backend.model.entity.Post;
 import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.enumerated.LikeType;
+import ru.skillbox.zerone.backend.model.projection.CommentRow;
 import ru.skillbox.zerone.backend.repository.CommentRepository;
+import ru.skillbox.zerone.backend.repository.PostRepository;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+import ru.skillbox.zerone.backend.service.LikeStoreService.LikeSummary;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
 
+import java.util.*;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CommentService {
   private final CommentRepository commentRepository;
   private final NotificationService notificationService;
   private final CommentMapper commentMapper;
+  private final LikeStoreService likeStoreService;
+  private final UserRepository userRepository;
+  private final PostRepository postRepository;
+
+  @Value("${comments.tree-depth}")
+  private int treeDepth;
+  @Value("${comments.replies-per-level}")
+  private int repliesPerLevel;
 
   public CommonListResponseDTO<CommentDTO> getComments(int offset, int itemPerPage, long id) {
-    Pageable pageable = PageRequest.of(offset / itemPerPage, itemPerPage, Sort.by(Sort.Direction.ASC, "time"));
-    Page<Comment> commentPage = commentRepository.findCommentsByPostIdAndParentIsNull(id, pageable);
-    return getCommentResponse(offset, itemPerPage, commentPage);
+    var roots = commentRepository.findRootCommentRows(id, offset, itemPerPage);
+    int total = postRepository.findCommentCountById(id).orElse(0);
+    return getCommentResponse(offset, itemPerPage, total, buildTree(roots));
+  }
+
+  public CommonListResponseDTO<CommentDTO> getReplies(long postId, long commentId, int offset, int itemPerPage) {
+    int total = commentRepository.findReplyCountByIdAndPostId(commentId, postId)
+        .orElseThrow(() -> new CommentNotFoundException(
+            String.format("Комментарий с id %d у поста с id %d не найден", commentId, postId)));
+    var replies = commentRepository.findReplyRows(commentId, offset, itemPerPage);
+    return getCommentResponse(offset, itemPerPage, total, buildTree(replies));
+  }
+
+  public Map<Long, CommonListResponseDTO<CommentDTO>> getCommentPreviews(List<Post> posts, int itemPerPage) {
+    if (posts.isEmpty()) {
+      return Map.of();
+    }
+    var postIds = posts.stream().map(Post::getId).toList();
+    var roots = commentRepository.findFirstRootCommentsByPostIdIn(postIds, itemPerPage);
+    var tree = buildTree(roots);
+
+    Map<Long, List<CommentDTO>> rootsByPost = new HashMap<>();
+    tree.forEach(c -> rootsByPost.computeIfAbsent(c.getPost(), k -> new ArrayList<>()).add(c));
+
+    Map<Long, CommonListResponseDTO<CommentDTO>> previews = new HashMap<>();
+    posts.forEach(post -> previews.put(post.getId(), CommonListResponseDTO.<CommentDTO>builder()
+        .total(post.getCommentCount() == null ? 0 : post.getCommentCount())
+        .perPage(itemPerPage)
+        .offset(0)
+        .data(rootsByPost.getOrDefault(post.getId(), List.of()))
+        .build()));
+    return previews;
   }
 
+  private List<CommentDTO> buildTree(List<CommentRow> top) {
+    if (top.isEmpty()) {
+      return List.of();
+    }
+    List<CommentRow> rows = new ArrayList<>(top);
+    var parentIds = top.stream()
+        .filter(r -> r.getReplyCount() > 0)
+        .map(CommentRow::getId)
+        .toList();
+    if (!parentIds.isEmpty() && treeDepth > 0) {
+      rows.addAll(commentRepository.findCommentTree(parentIds, treeDepth, repliesPerLevel));
+    }
+    var commentDTOs = getCommentDTOs(rows);
+    rows.subList(top.size(), rows.size()).stream()
+        .filter(r -> commentDTOs.containsKey(r.getParentId()))
+        .forEach(r -> commentDTOs.get(r.getParentId()).getSubComments().add(commentDTOs.get(r.getId())));
+    return top.stream().map(r -> commentDTOs.get(r.getId())).toList();
+  }
+
+  private Map<Long, CommentDTO> getCommentDTOs(List<CommentRow> rows) {
+    if (rows.isEmpty()) {
+      return Map.of();
+    }
+    var commentIds = rows.stream().map(CommentRow::getId).toList();
+    var authorIds = rows.stream().map(CommentRow::getAuthorId).collect(Collectors.toSet());
+    var authors = userRepository.findUsersWithRolesByIdIn(authorIds).stream()
+        .collect(Collectors.toMap(User::getId, Function.identity()));
+    var likes = likeStoreService.summaries(LikeType.COMMENT, commentIds, CurrentUserUtils.getCurrentUser().getId());
+
+    Map<Long, CommentDTO> commentDTOs = new LinkedHashMap<>();
+    rows.forEach(r -> {
+      var commentDTO = commentMapper.commentRowToCommentDTO(r, authors.get(r.getAuthorId()));
+      commentDTO.setSubComments(new ArrayList<>());
+      var like = likes.getOrDefault(r.getId(), LikeSummary.NONE);
+      commentDTO.setLikes(like.count());
+      commentDTO.setMyLike(like.liked());
+      commentDTOs.put(r.getId(), commentDTO);
+    });
+    return commentDTOs;
+  }
+
+  @Transactional
   public CommonResponseDTO<CommentDTO> addComment(long postId, CommentRequestDTO commentRequest) {
     Comment comment = commentMapper.dtoToComment(commentRequest, postId);
     commentRepository.save(comment);
+    incrementCounter(comment);
     notificationService.saveComment(comment);
     return getCommentResponse(comment);
   }
 
+  @Transactional
   public CommonResponseDTO<CommentDTO> deleteComment(long id) {
     Comment comment = commentRepository.findById(id).orElseThrow(createCommentNotFoundException(id));
     return setCommentIsDeleted(comment, true);
   }
 
+  @Transactional
   public CommonResponseDTO<CommentDTO> recoveryComment(long id) {
     Comment comment = commentRepository.findById(id).orElseThrow(createCommentNotFoundException(id));
     return setCommentIsDeleted(comment, false);
@@ -72,12 +163,12 @@ public class CommentService {
         .build();
   }
 
-  private CommonListResponseDTO<CommentDTO> getCommentResponse(int offset, int itemPerPage, Page<Comment> pageableCommentList) {
+  private CommonListResponseDTO<CommentDTO> getCommentResponse(int offset, int itemPerPage, long total, List<CommentDTO> comments) {
     return CommonListResponseDTO.<CommentDTO>builder()
-        .total(pageableCommentList.getTotalElements())
+        .total(total)
         .perPage(itemPerPage)
         .offset(offset)
-        .data(commentMapper.commentListToCommentDTOList(pageableCommentList.toList()))
+        .data(comments)
         .build();
   }
 
@@ -92,4 +183,19 @@ public class CommentService {
     return getCommentResponse(comment);
   }
 
+  private void incrementCounter(Comment comment) {
+    if (comment.getParent() == null) {
+      postRepository.changeCommentCount(comment.getPost().getId(), 1);
+    } else {
+      commentRepository.changeReplyCount(comment.getParent().getId(), 1);
+    }
+  }
+
+  @Transactional
+  @Scheduled(cron = "${scheduled-tasks.comment-counters-reconciler}")
+  public void reconcileCounters() {
+    int posts = postRepository.reconcileCommentCounts();
+    int comments = commentRepository.reconcileReplyCounts();
+    log.info(String.format("Comment counters reconciled: %d posts, %d comments repaired", posts, comments));
+  }
 }
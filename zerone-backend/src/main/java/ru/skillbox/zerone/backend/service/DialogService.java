@@ -7,7 +7,6 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.skillbox.zerone.backend.exception.DialogException;
 import ru.skillbox.zerone.backend.exception.UserNotFoundException;
-import ru.skillbox.zerone.backend.exception.ZeroneSocketException;
 import ru.skillbox.zerone.backend.mapstruct.DialogMapper;
 import ru.skillbox.zerone.backend.mapstruct.MessageMapper;
 import ru.skillbox.zerone.backend.model.dto.request.DialogRequestDTO;
@@ -17,13 +16,18 @@ import ru.skillbox.zerone.backend.model.entity.Dialog;
 import ru.skillbox.zerone.backend.model.entity.Message;
 import ru.skillbox.zerone.backend.model.entity.User;
 import ru.skillbox.zerone.backend.repository.DialogRepository;
+import ru.skillbox.zerone.backend.repository.DialogSummaryRepository;
 import ru.skillbox.zerone.backend.repository.FriendshipRepository;
 import ru.skillbox.zerone.backend.repository.MessageRepository;
 import ru.skillbox.zerone.backend.repository.UserRepository;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
 import ru.skillbox.zerone.backend.util.ResponseUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import static java.lang.Boolean.TRUE;
 import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.BLOCKED;
@@ -34,59 +38,141 @@ import static ru.skillbox.zerone.backend.model.enumerated.ReadStatus.SENT;
 @Service
 @RequiredArgsConstructor
 public class DialogService {
+  private static final int PREVIEW_LENGTH = 200;
 
   private final DialogRepository dialogRepository;
+  private final DialogSummaryRepository dialogSummaryRepository;
   private final MessageRepository messageRepository;
   private final UserRepository userRepository;
   private final MessageMapper messageMapper;
   private final DialogMapper dialogMapper;
-  private final SocketIOService socketIOService;
   private final FriendshipRepository friendshipRepository;
   private final NotificationService notificationService;
+  private final MessageDeliveryPipeline messageDeliveryPipeline;
+  private final UnreadCounterService unreadCounterService;
+  private final TypingService typingService;
 
   @Transactional
   public CommonListResponseDTO<MessageDataDTO> getMessages(long id, int offset, int itemPerPage) {
-    var dialog = dialogRepository.findById(id)
-        .orElseThrow(() -> new DialogException(String.format("Диалог с id: \"%s\" не найден", id)));
-
+    var dialog = findDialog(id);
     var pageRequest = PageRequest.of(offset / itemPerPage, itemPerPage).withSort(Sort.by("id").descending());
 
     var messagesPage = messageRepository.findByDialog(dialog, pageRequest);
-    var user = CurrentUserUtils.getCurrentUser();
-
-    var unreadedMessages = messagesPage.stream()
-        .filter(m -> SENT.equals(m.getReadStatus()))
-        .filter(m -> !Objects.equals(m.getAuthor().getId(), user.getId()))
-        .map(u -> u.setReadStatus(READ))
-        .toList();
-    messageRepository.saveAll(unreadedMessages);
+    var messages = readMessages(dialog, messagesPage.getContent());
 
     return CommonListResponseDTO.<MessageDataDTO>builder()
         .offset(offset)
         .perPage(itemPerPage)
         .total(messagesPage.getTotalElements())
-        .data(messageMapper.messagesListToMessageDataDTOs(messagesPage.getContent()))
+        .data(messages)
         .build();
   }
 
-  @Transactional(dontRollbackOn = ZeroneSocketException.class)
-  public CommonResponseDTO<MessageDataDTO> postMessages(long id, MessageRequestDTO messageRequestDTO) {
+  @Transactional
+  public CommonListResponseDTO<MessageDataDTO> getMessages(long id, int offset, int itemPerPage,
+                                                           Long before, Long after, Long around) {
+    if (Stream.of(before, after, around).filter(Objects::nonNull).count() > 1) {
+      throw new DialogException("Можно указать только один из параметров before, after или around");
+    }
+    if (before == null && after == null && around == null) {
+      return getMessages(id, offset, itemPerPage);
+    }
+    var dialog = findDialog(id);
+    MessageWindow window;
+    if (before != null) {
+      window = windowBefore(dialog, before, itemPerPage);
+    } else if (after != null) {
+      window = windowAfter(dialog, after, itemPerPage);
+    } else {
+      window = windowAround(dialog, around, itemPerPage);
+    }
+    var messages = readMessages(dialog, window.messages());
+
+    return CommonListResponseDTO.<MessageDataDTO>builder()
+        .offset(0)
+        .perPage(itemPerPage)
+        .data(messages)
+        .nextCursor(window.hasOlder() && !messages.isEmpty() ? String.valueOf(messages.get(messages.size() - 1).getId()) : null)
+        .prevCursor(window.hasNewer() && !messages.isEmpty() ? String.valueOf(messages.get(0).getId()) : null)
+        .build();
+  }
+
+  private MessageWindow windowBefore(Dialog dialog, long anchor, int limit) {
+    var older = messageRepository.findByDialogAndIdLessThanOrderByIdDesc(dialog, anchor, PageRequest.of(0, limit + 1));
+    return new MessageWindow(head(older, limit), older.size() > limit,
+        messageRepository.existsByDialogAndIdGreaterThanEqual(dialog, anchor));
+  }
+
+  private MessageWindow windowAfter(Dialog dialog, long anchor, int limit) {
+    var newer = messageRepository.findByDialogAndIdGreaterThanOrderByIdAsc(dialog, anchor, PageRequest.of(0, limit + 1));
+    return new MessageWindow(descending(head(newer, limit)),
+        messageRepository.existsByDialogAndIdLessThanEqual(dialog, anchor), newer.size() > limit);
+  }
+
+  private MessageWindow windowAround(Dialog dialog, long anchor, int limit) {
+    var olderLimit = limit / 2;
+    var newerLimit = limit - olderLimit;
+    var newer = messageRepository.findByDialogAndIdGreaterThanEqualOrderByIdAsc(dialog, anchor,
+        PageRequest.of(0, newerLimit + 1));
+    var older = messageRepository.findByDialogAndIdLessThanOrderByIdDesc(dialog, anchor,
+        PageRequest.of(0, olderLimit + 1));
+    var messages = descending(head(newer, newerLimit));
+    messages.addAll(head(older, olderLimit));
+    return new MessageWindow(messages, older.size() > olderLimit, newer.size() > newerLimit);
+  }
+
+  private static List<Message> head(List<Message> messages, int limit) {
+    return messages.size() > limit ? messages.subList(0, limit) : messages;
+  }
+
+  private static List<Message> descending(List<Message> ascending) {
+    var messages = new ArrayList<>(ascending);
+    Collections.reverse(messages);
+    return messages;
+  }
+
+  private List<MessageDataDTO> readMessages(Dialog dialog, List<Message> page) {
+    var user = CurrentUserUtils.getCurrentUser();
+    var companion = user.getId().equals(dialog.getRecipient().getId()) ? dialog.getSender() : dialog.getRecipient();
+    var companionLastRead = dialogSummaryRepository.findByDialogId(dialog.getId())
+        .map(s -> s.lastReadMessageIdOf(companion));
+
+    page.stream()
+        .mapToLong(Message::getId)
+        .max()
+        .ifPresent(lastId -> unreadCounterService.markRead(dialog.getId(), user.getId(), lastId));
+
+    var messages = messageMapper.messagesListToMessageDataDTOs(page);
+    messages.forEach(m -> {
+      if (!m.isSendByMe() || user.getId().equals(companion.getId())) {
+        m.setReadStatus(READ.name());
+      } else {
+        companionLastRead.ifPresent(lastRead -> m.setReadStatus(m.getId() <= lastRead ? READ.name() : SENT.name()));
+      }
+    });
+    return messages;
+  }
+
+  private Dialog findDialog(long id) {
     var dialog = dialogRepository.findById(id)
         .orElseThrow(() -> new DialogException(String.format("Диалог с id: \"%s\" не найден", id)));
+    typingService.remember(dialog);
+    return dialog;
+  }
+
+  @Transactional
+  public CommonResponseDTO<MessageDataDTO> postMessages(long id, MessageRequestDTO messageRequestDTO) {
+    var dialog = findDialog(id);
     var user = CurrentUserUtils.getCurrentUser();
     var companion = user.getId().equals(dialog.getRecipient().getId()) ? dialog.getSender() : dialog.getRecipient();
 
     checkUserCanSendMessagesToCompanion(user, companion);
 
     var message = messageMapper.messageRequestDTOToMessage(messageRequestDTO, dialog);
-    if (user.getId().equals(companion.getId())) {
-      message.setReadStatus(READ);
-    }
     messageRepository.save(message);
-
+    registerInSummary(dialog, message, user, companion);
     notificationService.saveMessage(message);
-
-    socketIOService.sendMessageEvent(message);
+    messageDeliveryPipeline.submit(message);
 
     var responseData = messageMapper.messageToMessageDataDTO(message);
 
@@ -113,12 +199,12 @@ public class DialogService {
 
   public CommonResponseDTO<CountDTO> getUnreaded() {
     var user = CurrentUserUtils.getCurrentUser();
-    var countUnread = dialogRepository.countUnreadMessagesByUser(user, SENT);
+    var countUnread = unreadCounterService.total(user.getId());
 
     return ResponseUtils.commonResponseWithData(new CountDTO(countUnread));
   }
 
-  @Transactional(dontRollbackOn = ZeroneSocketException.class)
+  @Transactional
   public CommonResponseDTO<DialogDataDTO> postDialogs(DialogRequestDTO dialogRequestDTO) {
     var id = dialogRequestDTO.getUsersIds().get(0);
     if (Objects.isNull(id) || id < 1) {
@@ -129,15 +215,12 @@ public class DialogService {
 
     checkUserCanSendMessagesToCompanion(user, companion);
 
-    var optionalDialog = dialogRepository.findByUserDuet(user, companion);
-
-    if (optionalDialog.isEmpty()) {
-      var dialog = Dialog.builder()
-          .sender(user)
-          .recipient(companion)
-          .build();
-      dialogRepository.save(dialog);
+    var created = dialogRepository.insertIfAbsent(user.getId(), companion.getId()) > 0;
+    var dialog = dialogRepository.findByPairKey(Math.min(user.getId(), companion.getId()),
+            Math.max(user.getId(), companion.getId()))
+        .orElseThrow(() -> new DialogException(String.format("Диалог с пользователем с id: \"%s\" не найден", id)));
 
+    if (created) {
       String firstMessageText;
       if (user.getId().equals(companion.getId())) {
         firstMessageText = "Это ваше персональное хранилище сообщений";
@@ -151,15 +234,12 @@ public class DialogService {
           .author(user)
           .build();
 
-      if (user.getId().equals(companion.getId())) {
-        message.setReadStatus(READ);
-      }
-
       messageRepository.save(message);
+      registerInSummary(dialog, message, user, companion);
 
       if (!user.getId().equals(companion.getId())) {
-        socketIOService.sendMessageEvent(message);
         notificationService.saveMessage(message);
+        messageDeliveryPipeline.submit(message);
       }
 
       var dialogDataDTO = dialogMapper.dialogToDialogDataDTO(dialog, message, 0, companion);
@@ -167,36 +247,43 @@ public class DialogService {
       return ResponseUtils.commonResponseWithData(dialogDataDTO);
     }
 
-    var dialog = optionalDialog.get();
-    var lastMessage = messageRepository.findFirstByDialogOrderBySentTimeDesc(dialog)
+    var summary = dialogSummaryRepository.findByDialogId(dialog.getId())
         .orElseThrow(() -> new DialogException(String.format("Для диалога с id \"%s\" не найдено сообщений", dialog.getId())));
-    int unreadCount = messageRepository.countByDialogAndAuthorAndReadStatus(dialog, companion, SENT);
-    var dialogDataDTO = dialogMapper.dialogToDialogDataDTO(dialog, lastMessage, unreadCount, companion);
+    var dialogDataDTO = dialogMapper.dialogSummaryToDialogDataDTO(summary, summary.unreadCountOf(user), companion);
 
     return ResponseUtils.commonResponseWithData(dialogDataDTO);
   }
 
+  private void registerInSummary(Dialog dialog, Message message, User author, User companion) {
+    var text = message.getMessageText();
+    var preview = text.length() > PREVIEW_LENGTH ? text.substring(0, PREVIEW_LENGTH) : text;
+    var unread = !author.getId().equals(companion.getId());
+    dialogSummaryRepository.registerMessage(dialog.getId(), message.getId(), author.getId(), preview,
+        message.getSentTime(), unread);
+    if (unread) {
+      unreadCounterService.increment(companion.getId(), dialog.getId());
+    }
+  }
+
   @Transactional
   public CommonListResponseDTO<DialogDataDTO> getDialogs(int offset, int itemPerPage) {
     var user = CurrentUserUtils.getCurrentUser();
     var pageRequest = PageRequest.of(offset / itemPerPage, itemPerPage);
 
-    var dialogsPage = dialogRepository.getPageOfDialogsByUser(user, pageRequest);
+    var summariesPage = dialogSummaryRepository.findPageByUser(user, pageRequest);
 
-    var dialogsDTOs = dialogsPage.map(d -> {
-          var companion = user.getId().equals(d.getRecipient().getId()) ? d.getSender() : d.getRecipient();
-          var lastMessage = messageRepository.findFirstByDialogOrderBySentTimeDesc(d)
-              .orElseThrow(() -> new DialogException(String.format("Для диалога с id \"%s\" не найдено сообщений", d.getId())));
-          int unreadCount = messageRepository.countByDialogAndAuthorAndReadStatus(d, companion, SENT);
-          return dialogMapper.dialogToDialogDataDTO(d, lastMessage, unreadCount, companion);
-        })
+    var dialogsDTOs = summariesPage.map(s ->
+            dialogMapper.dialogSummaryToDialogDataDTO(s, s.unreadCountOf(user), s.companionOf(user)))
         .toList();
 
     return CommonListResponseDTO.<DialogDataDTO>builder()
-        .total(dialogsPage.getTotalPages())
+        .total(summariesPage.getTotalElements())
         .perPage(itemPerPage)
         .offset(offset)
         .data(dialogsDTOs)
         .build();
   }
+
+  private record MessageWindow(List<Message> messages, boolean hasOlder, boolean hasNewer) {
+  }
 }
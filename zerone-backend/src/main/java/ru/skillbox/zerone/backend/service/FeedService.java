@@ -0,0 +1,93 @@
+package ru.skillbox.zerone.backend.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skillbox.zerone.backend.model.entity.Post;
+import ru.skillbox.zerone.backend.repository.FeedItemRepository;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+import ru.skillbox.zerone.backend.util.CursorUtils;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+  private final FeedItemRepository feedItemRepository;
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${feed.max-size}")
+  private int maxSize;
+  @Value("${feed.rebuild-chunk-size}")
+  private int rebuildChunkSize;
+  @Value("${feed.rebuild-on-startup}")
+  private boolean rebuildOnStartup;
+
+  public void fanOut(Post post) {
+    feedItemRepository.fanOut(post.getAuthor().getId(), post.getId(), post.getTime());
+  }
+
+  public void reschedule(Post post) {
+    feedItemRepository.updateTimeByPostId(post.getId(), post.getTime());
+  }
+
+  public Slice<Post> getFeed(long userId, Pageable pageable) {
+    return feedItemRepository.getPostsForFeed(userId, LocalDateTime.now(), pageable);
+  }
+
+  public Slice<Post> getFeed(long userId, CursorUtils.Cursor cursor, Pageable pageable) {
+    return feedItemRepository.getPostsForFeedBefore(userId, LocalDateTime.now(), cursor.time(), cursor.id(), pageable);
+  }
+
+  public void refreshSubscriptions(long userId, long otherUserId) {
+    refreshSubscription(userId, otherUserId);
+    refreshSubscription(otherUserId, userId);
+  }
+
+  private void refreshSubscription(long userId, long authorId) {
+    feedItemRepository.deleteByUserIdAndAuthorId(userId, authorId);
+    feedItemRepository.backfillFromAuthor(userId, authorId, maxSize);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildOnStartup() {
+    if (rebuildOnStartup) {
+      rebuildAllFeeds();
+    }
+  }
+
+  public void rebuildAllFeeds() {
+    long inserted = 0;
+    Slice<Long> userIds;
+    Pageable pageable = PageRequest.of(0, rebuildChunkSize, Sort.by("id"));
+    do {
+      userIds = userRepository.findAllUsersId(pageable);
+      var chunk = userIds.getContent();
+      if (!chunk.isEmpty()) {
+        Integer count = transactionTemplate.execute(status -> feedItemRepository.backfill(chunk, maxSize));
+        inserted += count == null ? 0 : count;
+      }
+      pageable = userIds.nextPageable();
+    } while (userIds.hasNext());
+    log.info(String.format("Feed rebuild finished, %d items inserted", inserted));
+  }
+
+  @Transactional
+  @Scheduled(cron = "${scheduled-tasks.feed-trimmer}")
+  public void trimFeeds() {
+    int removed = feedItemRepository.trim(maxSize);
+    log.debug(String.format("Feed trim removed %d items", removed));
+  }
+}
@@ -0,0 +1,298 @@
+package ru.skillbox.zerone.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.skillbox.zerone.backend.model.entity.Friendship;
+import ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus;
+import ru.skillbox.zerone.backend.model.projection.FriendshipEdge;
+import ru.skillbox.zerone.backend.repository.FriendshipRepository;
+import ru.skillbox.zerone.backend.util.TransactionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.FRIEND;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FriendGraph {
+  private static final long[] EMPTY = new long[0];
+  private static final FriendshipStatus[] STATUSES = FriendshipStatus.values();
+  private static final String TOPIC = "friend-graph";
+
+  private final FriendshipRepository friendshipRepository;
+  private final ClusterBroadcast clusterBroadcast;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final List<Consumer<Set<Long>>> listeners = new CopyOnWriteArrayList<>();
+  private EnumMap<FriendshipStatus, AdjacencyMap> adjacency = emptyAdjacency();
+  private List<Edge> replay;
+
+  @Value("${friend-graph.load-chunk-size}")
+  private int loadChunkSize;
+
+  @PostConstruct
+  public void start() {
+    clusterBroadcast.subscribe(TOPIC, GraphChange.class, change -> update(change.edges()));
+    load();
+  }
+
+  @Scheduled(cron = "${scheduled-tasks.friend-graph-reload}")
+  public void load() {
+    lock.writeLock().lock();
+    try {
+      replay = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    var loaded = emptyAdjacency();
+    var buffers = new long[STATUSES.length][16];
+    var sizes = new int[STATUSES.length];
+    long lastSrc = 0;
+    long lastDst = 0;
+    long lastId = 0;
+    long edges = 0;
+    List<FriendshipEdge> chunk;
+    do {
+      chunk = friendshipRepository.findEdgesAfter(lastSrc, lastDst, lastId, loadChunkSize);
+      for (var edge : chunk) {
+        if (edges > 0 && edge.getSrcId() != lastSrc) {
+          flush(loaded, lastSrc, buffers, sizes);
+        }
+        int status = FriendshipStatus.valueOf(edge.getStatus()).ordinal();
+        if (sizes[status] == buffers[status].length) {
+          buffers[status] = Arrays.copyOf(buffers[status], sizes[status] * 2);
+        }
+        buffers[status][sizes[status]++] = edge.getDstId();
+        lastSrc = edge.getSrcId();
+        lastDst = edge.getDstId();
+        lastId = edge.getId();
+        edges++;
+      }
+    } while (chunk.size() == loadChunkSize);
+    if (edges > 0) {
+      flush(loaded, lastSrc, buffers, sizes);
+    }
+
+    lock.writeLock().lock();
+    try {
+      replay.forEach(edge -> put(loaded, edge));
+      replay = null;
+      adjacency = loaded;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    log.info(String.format("Friend graph loaded, %d edges", edges));
+  }
+
+  public FriendshipStatus status(long srcId, long dstId) {
+    lock.readLock().lock();
+    try {
+      for (var status : STATUSES) {
+        if (Arrays.binarySearch(adjacency.get(status).get(srcId), dstId) >= 0) {
+          return status;
+        }
+      }
+      return null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public boolean hasStatus(long srcId, long dstId, FriendshipStatus status) {
+    return Arrays.binarySearch(adjacent(srcId, status), dstId) >= 0;
+  }
+
+  public long[] friendsOf(long userId) {
+    return adjacent(userId, FRIEND);
+  }
+
+  public long[] adjacent(long userId, FriendshipStatus status) {
+    lock.readLock().lock();
+    try {
+      return adjacency.get(status).get(userId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public void onChange(Consumer<Set<Long>> listener) {
+    listeners.add(listener);
+  }
+
+  public void apply(Collection<Friendship> friendships) {
+    var edges = friendships.stream()
+        .map(f -> new Edge(f.getSrcPerson().getId(), f.getDstPerson().getId(), f.getStatus()))
+        .toList();
+    TransactionUtils.afterCommit(() -> publish(edges));
+  }
+
+  public void remove(Collection<Friendship> friendships) {
+    var edges = friendships.stream()
+        .map(f -> new Edge(f.getSrcPerson().getId(), f.getDstPerson().getId(), null))
+        .toList();
+    TransactionUtils.afterCommit(() -> publish(edges));
+  }
+
+  private void publish(List<Edge> edges) {
+    update(edges);
+    clusterBroadcast.publish(TOPIC, new GraphChange(edges));
+  }
+
+  private void update(List<Edge> edges) {
+    lock.writeLock().lock();
+    try {
+      edges.forEach(edge -> put(adjacency, edge));
+      if (replay != null) {
+        replay.addAll(edges);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    var userIds = new HashSet<Long>();
+    edges.forEach(edge -> {
+      userIds.add(edge.srcId());
+      userIds.add(edge.dstId());
+    });
+    listeners.forEach(listener -> listener.accept(userIds));
+  }
+
+  private static void put(EnumMap<FriendshipStatus, AdjacencyMap> target, Edge edge) {
+    for (var status : STATUSES) {
+      var map = target.get(status);
+      var current = map.get(edge.srcId());
+      var updated = status == edge.status() ? insert(current, edge.dstId()) : delete(current, edge.dstId());
+      if (updated != current) {
+        map.put(edge.srcId(), updated);
+      }
+    }
+  }
+
+  private static void flush(EnumMap<FriendshipStatus, AdjacencyMap> target, long srcId, long[][] buffers, int[] sizes) {
+    for (int i = 0; i < STATUSES.length; i++) {
+      if (sizes[i] == 0) {
+        continue;
+      }
+      var values = buffers[i];
+      int size = 1;
+      for (int j = 1; j < sizes[i]; j++) {
+        if (values[j] != values[size - 1]) {
+          values[size++] = values[j];
+        }
+      }
+      target.get(STATUSES[i]).put(srcId, Arrays.copyOf(values, size));
+      sizes[i] = 0;
+    }
+  }
+
+  private static long[] insert(long[] values, long value) {
+    int index = Arrays.binarySearch(values, value);
+    if (index >= 0) {
+      return values;
+    }
+    int position = -index - 1;
+    var result = new long[values.length + 1];
+    System.arraycopy(values, 0, result, 0, position);
+    result[position] = value;
+    System.arraycopy(values, position, result, position + 1, values.length - position);
+    return result;
+  }
+
+  private static long[] delete(long[] values, long value) {
+    int index = Arrays.binarySearch(values, value);
+    if (index < 0) {
+      return values;
+    }
+    if (values.length == 1) {
+      return EMPTY;
+    }
+    var result = new long[values.length - 1];
+    System.arraycopy(values, 0, result, 0, index);
+    System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+    return result;
+  }
+
+  private static EnumMap<FriendshipStatus, AdjacencyMap> emptyAdjacency() {
+    var result = new EnumMap<FriendshipStatus, AdjacencyMap>(FriendshipStatus.class);
+    for (var status : STATUSES) {
+      result.put(status, new AdjacencyMap());
+    }
+    return result;
+  }
+
+  record Edge(long srcId, long dstId, FriendshipStatus status) {
+  }
+
+  record GraphChange(List<Edge> edges) {
+  }
+
+  private static final class AdjacencyMap {
+    private long[] keys = new long[16];
+    private long[][] values = new long[16][];
+    private int size;
+
+    long[] get(long key) {
+      int mask = keys.length - 1;
+      for (int i = index(key, mask); values[i] != null; i = (i + 1) & mask) {
+        if (keys[i] == key) {
+          return values[i];
+        }
+      }
+      return EMPTY;
+    }
+
+    void put(long key, long[] value) {
+      int mask = keys.length - 1;
+      int i = index(key, mask);
+      while (values[i] != null) {
+        if (keys[i] == key) {
+          values[i] = value;
+          return;
+        }
+        i = (i + 1) & mask;
+      }
+      keys[i] = key;
+      values[i] = value;
+      if (++size * 2 > keys.length) {
+        resize();
+      }
+    }
+
+    private void resize() {
+      var oldKeys = keys;
+      var oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new long[oldKeys.length * 2][];
+      int mask = keys.length - 1;
+      for (int j = 0; j < oldKeys.length; j++) {
+        if (oldValues[j] == null) {
+          continue;
+        }
+        int i = index(oldKeys[j], mask);
+        while (values[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+    }
+
+    private static int index(long key, int mask) {
+      long hash = key * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+  }
+}
@@ -4,8 +4,6 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import ru.skillbox.zerone.backend.exception.FriendshipException;
 import ru.skillbox.zerone.backend.exception.UserNotFoundException;
@@ -13,7 +11,6 @@ import ru.skillbox.zerone.backend.mapstruct.UserMapper;
 import ru.skillbox.zerone.backend.model.dto.request.IsFriendsDTO;
 import ru.skillbox.zerone.backend.model.dto.response.*;
 import ru.skillbox.zerone.backend.model.entity.Friendship;
-import ru.skillbox.zerone.backend.model.entity.Recommendation;
 import ru.skillbox.zerone.backend.model.entity.User;
 import ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus;
 import ru.skillbox.zerone.backend.repository.FriendshipRepository;
@@ -48,13 +45,18 @@ public class FriendService {
   public static final String YOU_HAVE_SENT_REQUEST_ALREADY = "Вы уже отправили заявку в друзья";
   public static final String YOU_WAS_BLOCKED_BY_USER = "Вы были заблокированы пользователем";
   public static final String USER_NOT_BLOCKED = "Пользователь не заблокирован";
+  public static final String CONCURRENT_FRIENDSHIP_UPDATE =
+      "Статус дружбы одновременно изменяется, попробуйте еще раз";
 
   private final FriendshipRepository friendshipRepository;
   private final UserRepository userRepository;
   private final RecommendationRepository recommendationRepository;
-  private static final int RECOMMENDATION_COUNT = 8;
   private final UserMapper userMapper;
   private final NotificationService notificationService;
+  private final FeedService feedService;
+  private final FriendGraph friendGraph;
+  private final RecommendationService recommendationService;
+  private final RecommendationRefreshQueue recommendationRefreshQueue;
 
   @Transactional
   @SuppressWarnings({"OptionalGetWithoutIsPresent", "java:S3655", "DuplicatedCode"})
@@ -70,10 +72,9 @@ public class FriendService {
       throw new FriendshipException(CANNOT_ADD_YOURSELF);
     }
 
-    var friendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(user, friend);
-    var reversedFriendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(friend, user);
+    var pair = findFriendshipPair(user, friend);
+    var friendshipOptional = pair.direct();
+    var reversedFriendshipOptional = pair.reversed();
 
     checkIfOneOptionalEmptyAndOneNotEmptyAndThrowExceptionIfMatched(friendshipOptional, reversedFriendshipOptional);
 
@@ -88,13 +89,29 @@ public class FriendService {
     }
 
     friendshipRepository.saveAll(friendshipList);
+    friendGraph.apply(friendshipList);
+    feedService.refreshSubscriptions(user.getId(), friend.getId());
 
     notificationService.saveFriendship(friendshipList);
     createPersonalRecommendations(user);
+    createPersonalRecommendations(friend);
 
     return ResponseUtils.commonResponseDataOk();
   }
 
+  private FriendshipPair findFriendshipPair(User user, User other) {
+    Optional<Friendship> direct = Optional.empty();
+    Optional<Friendship> reversed = Optional.empty();
+    for (var friendship : friendshipRepository.findPair(user.getId(), other.getId())) {
+      if (friendship.getSrcPerson().getId().equals(user.getId())) {
+        direct = Optional.of(friendship);
+      } else {
+        reversed = Optional.of(friendship);
+      }
+    }
+    return new FriendshipPair(direct, reversed);
+  }
+
   private void checkIfOneOptionalEmptyAndOneNotEmptyAndThrowExceptionIfMatched(Optional<Friendship> optionalOne,
                                                                                Optional<Friendship> optionalTwo) {
     Long id = null;
@@ -179,10 +196,9 @@ public class FriendService {
         .orElseThrow(() -> new UserNotFoundException(id));
     var user = CurrentUserUtils.getCurrentUser();
 
-    var friendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(user, friend);
-    var reversedFriendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(friend, user);
+    var pair = findFriendshipPair(user, friend);
+    var friendshipOptional = pair.direct();
+    var reversedFriendshipOptional = pair.reversed();
 
     checkIfOneOptionalEmptyAndOneNotEmptyAndThrowExceptionIfMatched(friendshipOptional, reversedFriendshipOptional);
 
@@ -204,6 +220,8 @@ public class FriendService {
       reversedFriendship.setStatus(SUBSCRIBED);
 
       friendshipRepository.saveAll(List.of(friendship, reversedFriendship));
+      friendGraph.apply(List.of(friendship, reversedFriendship));
+      feedService.refreshSubscriptions(user.getId(), friend.getId());
     }
 
     return ResponseUtils.commonResponseDataOk();
@@ -270,10 +288,10 @@ public class FriendService {
   public CommonListResponseDTO<StatusFriendDTO> checkIsFriends(IsFriendsDTO isFriendsDTO) {
     var user = CurrentUserUtils.getCurrentUser();
 
-    var friendships = friendshipRepository.findAllBySrcPersonAndDstPersonIdIn(user, isFriendsDTO.getUserIds());
-
-    var statusFriendDTOList = friendships.stream()
-        .map(f -> new StatusFriendDTO(f.getDstPerson().getId(), f.getStatus()))
+    var statusFriendDTOList = isFriendsDTO.getUserIds().stream()
+        .distinct()
+        .map(id -> new StatusFriendDTO(id, friendGraph.status(user.getId(), id)))
+        .filter(dto -> dto.getStatus() != null)
         .toList();
 
     return CommonListResponseDTO.<StatusFriendDTO>builder()
@@ -293,10 +311,9 @@ public class FriendService {
       throw new FriendshipException(CANNOT_ADD_YOURSELF);
     }
 
-    var friendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(user, target);
-    var reversedFriendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(target, user);
+    var pair = findFriendshipPair(user, target);
+    var friendshipOptional = pair.direct();
+    var reversedFriendshipOptional = pair.reversed();
 
     checkIfOneOptionalEmptyAndOneNotEmptyAndThrowExceptionIfMatched(friendshipOptional, reversedFriendshipOptional);
 
@@ -311,6 +328,8 @@ public class FriendService {
     }
 
     friendshipRepository.saveAll(friendshipList);
+    friendGraph.apply(friendshipList);
+    feedService.refreshSubscriptions(user.getId(), target.getId());
 
     return ResponseUtils.commonResponseDataOk();
   }
@@ -362,10 +381,9 @@ public class FriendService {
     var target = userRepository.findById(id)
         .orElseThrow(() -> new UserNotFoundException(id));
     var user = CurrentUserUtils.getCurrentUser();
-    var friendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(user, target);
-    var reversedFriendshipOptional = friendshipRepository
-        .findBySrcPersonAndDstPerson(target, user);
+    var pair = findFriendshipPair(user, target);
+    var friendshipOptional = pair.direct();
+    var reversedFriendshipOptional = pair.reversed();
 
     checkIfOneOptionalEmptyAndOneNotEmptyAndThrowExceptionIfMatched(friendshipOptional, reversedFriendshipOptional);
 
@@ -379,11 +397,14 @@ public class FriendService {
         friendship.setStatus(WASBLOCKEDBY);
         reversedFriendship.setStatus(BLOCKED);
         friendshipRepository.saveAll(List.of(friendship, reversedFriendship));
+        friendGraph.apply(List.of(friendship, reversedFriendship));
         return ResponseUtils.commonResponseDataOk();
       }
 
       if (friendshipStatus.equals(BLOCKED) && reversedFriendshipStatus.equals(WASBLOCKEDBY)) {
         friendshipRepository.deleteAll(List.of(friendship, reversedFriendship));
+        friendGraph.remove(List.of(friendship, reversedFriendship));
+        feedService.refreshSubscriptions(user.getId(), target.getId());
         return ResponseUtils.commonResponseDataOk();
       }
     }
@@ -399,12 +420,11 @@ public class FriendService {
       return null;
     }
 
-    Optional<Recommendation> recommendationsOptional = recommendationRepository.findById(user.getId());
-    if (recommendationsOptional.isEmpty()) {
-      createPersonalRecommendations(user);
+    var recommendations = recommendationRepository.findById(user.getId())
+        .orElseGet(() -> recommendationService.refresh(user.getId()));
+    if (recommendations == null) {
       return null;
     }
-    Recommendation recommendations = recommendationsOptional.get();
     List<User> recommendedFriends = userRepository.findUsersByIdIn(recommendations.getRecommendedFriends());
 
 
@@ -419,52 +439,10 @@ public class FriendService {
 
   }
 
-
-  @Scheduled(cron = "${scheduled-tasks.recommendation-creator}")
-  public void createRecommendations() {
-
-    var allUsers = userRepository.findAllUsers();
-    for (User user : allUsers) {
-      recommendationRepository.save(findRecommendations(user.getId(), 0, 100));
-    }
-  }
-
   public void createPersonalRecommendations(User user) {
-    if (recommendationRepository.findById(user.getId()).isPresent()) {
-      recommendationRepository.deleteById(user.getId());
-    }
-    recommendationRepository.save(findRecommendations(user.getId(), 0, 100));
+    recommendationRefreshQueue.enqueue(user.getId());
   }
 
-  public Recommendation findRecommendations(Long id, int offset, int itemPerPage) {
-    var userOptional = userRepository.findById(id);
-    if ( userOptional.isEmpty()) {
-      return null;
-    }
-    var user = userOptional.get();
-
-
-    Pageable pageable = PageRequest.of(offset / itemPerPage, itemPerPage);
-    var currentFriends = recommendationRepository.findFriendships(user.getId()).stream().toList();
-    var recommendedUsersByCity = userRepository.findUsersByCity(user.getCity(), pageable).getContent();
-    List<Long> recommendedUsersId = new ArrayList<>(recommendedUsersByCity);
-
-    recommendedUsersId.removeAll(currentFriends);
-    recommendedUsersId.remove(user.getId());
-
-    if (recommendedUsersId.size() < RECOMMENDATION_COUNT) {
-      var allUsers = new ArrayList<>(userRepository.findAllUsersId(pageable).stream().toList());
-      allUsers.removeAll(recommendedUsersByCity);
-      allUsers.removeAll(currentFriends);
-      Collections.shuffle(allUsers);
-      recommendedUsersId.addAll(allUsers);
-    }
-
-    var recommendations = recommendedUsersId.stream().distinct().limit(RECOMMENDATION_COUNT).toList();
-
-    return Recommendation.builder()
-        .id(user.getId())
-        .recommendedFriends((recommendations))
-        .build();
+  private record FriendshipPair(Optional<Friendship> direct, Optional<Friendship> reversed) {
   }
 }
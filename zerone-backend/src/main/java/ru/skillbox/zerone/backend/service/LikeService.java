@@ -9,82 +9,76 @@ import ru.skillbox.zerone.backend.model.dto.request.LikeRequestDTO;
 import ru.skillbox.zerone.backend.model.dto.response.CommonResponseDTO;
 import ru.skillbox.zerone.backend.model.dto.response.LikeData;
 import ru.skillbox.zerone.backend.model.dto.response.LikesCountResponse;
-import ru.skillbox.zerone.backend.model.entity.Comment;
-import ru.skillbox.zerone.backend.model.entity.Like;
-import ru.skillbox.zerone.backend.model.entity.Post;
 import ru.skillbox.zerone.backend.model.entity.User;
 import ru.skillbox.zerone.backend.model.enumerated.LikeType;
 import ru.skillbox.zerone.backend.repository.CommentRepository;
-import ru.skillbox.zerone.backend.repository.LikeRepository;
 import ru.skillbox.zerone.backend.repository.PostRepository;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
 
-import java.util.List;
-
 @Service
 @AllArgsConstructor
 public class LikeService {
-  private final LikeRepository likeRepository;
+  private static final int DEFAULT_LIKERS_PAGE_SIZE = 20;
+
+  private final LikeStoreService likeStoreService;
   private final PostRepository postRepository;
   private final CommentRepository commentRepository;
 
 
   public CommonResponseDTO<LikeData> putLike(LikeRequestDTO likeRequestDTO) {
     User user = CurrentUserUtils.getCurrentUser();
-    Like.LikeBuilder likeBuilder = Like.builder().type(likeRequestDTO.getType()).user(user);
-    switch (likeRequestDTO.getType()) {
-      case COMMENT -> {
-        Comment comment = commentRepository.findById(likeRequestDTO.getId()).orElseThrow(() -> new CommentNotFoundException(String.format("Комментарий с id %d не найден", likeRequestDTO.getId())));
-        if (likeRepository.findByUserAndComment(user, comment).isEmpty()) {
-          likeRepository.save(likeBuilder.comment(comment).build());
-        }
-      }
-      case POST -> {
-        Post post = postRepository.findById(likeRequestDTO.getId()).orElseThrow(() -> new PostNotFoundException(likeRequestDTO.getId()));
-        if (likeRepository.findByUserAndPost(user, post).isEmpty()) {
-          likeRepository.save(likeBuilder.post(post).build());
-        }
-      }
-      default -> throw new ZeroneException("Не задан корректный тип лайка");
-    }
-    return getLikesResponse(likeRequestDTO.getId(), likeRequestDTO.getType());
+    LikeType type = likeRequestDTO.getType();
+    long id = likeRequestDTO.getId();
+    ensureLoaded(id, type);
+    likeStoreService.add(type, id, user.getId());
+    return getLikesResponse(id, type, 0, DEFAULT_LIKERS_PAGE_SIZE);
   }
 
-  public CommonResponseDTO<LikeData> getLikes(Long id, LikeType type) {
-    return getLikesResponse(id, type);
+  public CommonResponseDTO<LikeData> getLikes(Long id, LikeType type, int offset, int itemPerPage) {
+    ensureLoaded(id, type);
+    return getLikesResponse(id, type, offset, itemPerPage);
   }
 
   public LikesCountResponse deleteLike(Long id, LikeType type) {
     User user = CurrentUserUtils.getCurrentUser();
-    Integer likeCount;
+    ensureLoaded(id, type);
+    likeStoreService.remove(type, id, user.getId());
 
+    return LikesCountResponse.builder()
+        .data(LikesCountResponse.Data.builder()
+            .likes(likeStoreService.count(type, id))
+            .build())
+        .build();
+  }
+
+  private void ensureLoaded(long id, LikeType type) {
+    if (type == null) {
+      throw new ZeroneException("Не задан корректный тип лайка");
+    }
+    if (likeStoreService.isLoaded(type, id)) {
+      return;
+    }
     switch (type) {
       case POST -> {
-        Post post = postRepository.findById(id).orElseThrow(() -> new PostNotFoundException(id));
-        likeRepository.findByUserAndPost(user, post).ifPresent(likeRepository::delete);
-        likeCount = likeRepository.countByPost(post);
+        if (!postRepository.existsById(id)) {
+          throw new PostNotFoundException(id);
+        }
       }
       case COMMENT -> {
-        Comment comment = commentRepository.findById(id).orElseThrow(() -> new CommentNotFoundException(id));
-        likeRepository.findByUserAndComment(user, comment).ifPresent(likeRepository::delete);
-        likeCount = likeRepository.countByComment(comment);
+        if (!commentRepository.existsById(id)) {
+          throw new CommentNotFoundException(id);
+        }
       }
       default -> throw new ZeroneException("Не задан корректный тип лайка");
     }
-
-    return LikesCountResponse.builder()
-        .data(LikesCountResponse.Data.builder()
-            .likes(likeCount)
-            .build())
-        .build();
+    likeStoreService.load(type, id);
   }
 
-  private CommonResponseDTO<LikeData> getLikesResponse(Long id, LikeType type) {
-    List<Long> likesUsersList = likeRepository.findLikers(id, type.getType());
+  private CommonResponseDTO<LikeData> getLikesResponse(long id, LikeType type, int offset, int itemPerPage) {
     return CommonResponseDTO.<LikeData>builder()
         .data(LikeData.builder()
-            .likes(likesUsersList.size())
-            .users(likesUsersList)
+            .likes(likeStoreService.count(type, id))
+            .users(likeStoreService.getLikers(type, id, offset, itemPerPage))
             .build())
         .build();
   }
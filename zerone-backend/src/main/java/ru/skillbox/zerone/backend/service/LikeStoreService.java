@@ -0,0 +1,282 @@
+package ru.skillbox.zerone.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skillbox.zerone.backend.model.enumerated.LikeType;
+import ru.skillbox.zerone.backend.model.projection.LikerRow;
+import ru.skillbox.zerone.backend.repository.LikeRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LikeStoreService {
+  private static final String KEY_PREFIX = "likes:";
+  private static final String QUEUE_KEY = "likes:queue";
+  private static final String PROCESSING_KEY = "likes:queue:processing";
+  private static final String ATTEMPTS_KEY = "likes:queue:attempts";
+  private static final String DEAD_LETTER_KEY = "likes:queue:dead";
+  private static final String LOCK_KEY = "likes:queue:lock";
+  private static final String LOADED_MARKER = "~";
+  private static final String LOAD_LOCK_PREFIX = "likes:load:";
+  private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+  private static final Duration LOAD_RETRY_DELAY = Duration.ofMillis(50);
+  private static final int LOAD_ATTEMPTS = 20;
+  private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+      if redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+        return 0
+      end
+      redis.call('ZADD', KEYS[1], 0, ARGV[1])
+      for i = 2, #ARGV, 2 do
+        redis.call('ZADD', KEYS[1], 'NX', ARGV[i], ARGV[i + 1])
+      end
+      return 1
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final LikeRepository likeRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final RedisLockService redisLockService;
+
+  @Value("${likes.flush-batch-size}")
+  private int flushBatchSize;
+  @Value("${likes.flush-max-attempts}")
+  private int flushMaxAttempts;
+
+  public boolean isLoaded(LikeType type, long entityId) {
+    return redisTemplate.opsForZSet().score(key(type, entityId), LOADED_MARKER) != null;
+  }
+
+  public void load(LikeType type, long entityId) {
+    String lockKey = LOAD_LOCK_PREFIX + type.name() + ":" + entityId;
+    for (int attempt = 1; attempt <= LOAD_ATTEMPTS && !isLoaded(type, entityId); attempt++) {
+      if (!redisLockService.runExclusively(lockKey, LOCK_TTL, () -> loadSnapshot(type, entityId))) {
+        pause();
+      }
+    }
+  }
+
+  private void loadSnapshot(LikeType type, long entityId) {
+    if (isLoaded(type, entityId)) {
+      return;
+    }
+    List<LikerRow> likers = type == LikeType.POST
+        ? likeRepository.findPostLikers(entityId)
+        : likeRepository.findCommentLikers(entityId);
+    List<String> args = new ArrayList<>(likers.size() * 2 + 1);
+    args.add(LOADED_MARKER);
+    likers.forEach(liker -> {
+      args.add(Double.toString(toScore(liker.getTime())));
+      args.add(liker.getUserId().toString());
+    });
+    redisTemplate.execute(LOAD_SCRIPT, List.of(key(type, entityId)), args.toArray());
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(LOAD_RETRY_DELAY.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public boolean add(LikeType type, long entityId, long userId) {
+    long now = System.currentTimeMillis();
+    Boolean added = redisTemplate.opsForZSet().addIfAbsent(key(type, entityId), Long.toString(userId), now);
+    if (Boolean.TRUE.equals(added)) {
+      enqueue(new LikeEvent(true, type, entityId, userId, now));
+      return true;
+    }
+    return false;
+  }
+
+  public boolean remove(LikeType type, long entityId, long userId) {
+    Long removed = redisTemplate.opsForZSet().remove(key(type, entityId), Long.toString(userId));
+    if (removed != null && removed > 0) {
+      enqueue(new LikeEvent(false, type, entityId, userId, System.currentTimeMillis()));
+      return true;
+    }
+    return false;
+  }
+
+  public boolean isLiked(LikeType type, long entityId, long userId) {
+    return redisTemplate.opsForZSet().score(key(type, entityId), Long.toString(userId)) != null;
+  }
+
+  public int count(LikeType type, long entityId) {
+    Long size = redisTemplate.opsForZSet().zCard(key(type, entityId));
+    return size == null || size == 0 ? 0 : (int) (size - 1);
+  }
+
+  public Map<Long, LikeSummary> summaries(LikeType type, Collection<Long> entityIds, long userId) {
+    List<Long> ids = entityIds.stream().distinct().toList();
+    Map<Long, LikeSummary> summaries = readSummaries(type, ids, userId);
+    List<Long> missing = ids.stream().filter(id -> !summaries.containsKey(id)).toList();
+    if (!missing.isEmpty()) {
+      missing.forEach(id -> load(type, id));
+      summaries.putAll(readSummaries(type, missing, userId));
+    }
+    return summaries;
+  }
+
+  private Map<Long, LikeSummary> readSummaries(LikeType type, List<Long> entityIds, long userId) {
+    byte[] marker = bytes(LOADED_MARKER);
+    byte[] member = bytes(Long.toString(userId));
+    List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      entityIds.forEach(id -> {
+        byte[] key = bytes(key(type, id));
+        connection.zSetCommands().zCard(key);
+        connection.zSetCommands().zScore(key, marker);
+        connection.zSetCommands().zScore(key, member);
+      });
+      return null;
+    });
+    Map<Long, LikeSummary> summaries = new HashMap<>();
+    for (int i = 0; i < entityIds.size(); i++) {
+      if (results.get(i * 3 + 1) != null && results.get(i * 3) instanceof Long size) {
+        summaries.put(entityIds.get(i), new LikeSummary((int) (size - 1), results.get(i * 3 + 2) != null));
+      }
+    }
+    return summaries;
+  }
+
+  public List<Long> getLikers(LikeType type, long entityId, int offset, int limit) {
+    Set<String> members = redisTemplate.opsForZSet().reverseRange(key(type, entityId), offset, (long) offset + limit - 1);
+    if (members == null) {
+      return List.of();
+    }
+    return members.stream()
+        .filter(member -> !LOADED_MARKER.equals(member))
+        .map(Long::valueOf)
+        .toList();
+  }
+
+  @Scheduled(fixedDelayString = "${likes.flush-delay}")
+  public void flush() {
+    redisLockService.runExclusively(LOCK_KEY, LOCK_TTL, this::flushBatch);
+  }
+
+  private void flushBatch() {
+    List<String> batch = pendingBatch();
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> persist(batch));
+    } catch (RuntimeException e) {
+      Long attempts = redisTemplate.opsForValue().increment(ATTEMPTS_KEY);
+      if (attempts != null && attempts < flushMaxAttempts) {
+        log.warn(String.format("Like queue flush failed, attempt %d of %d", attempts, flushMaxAttempts), e);
+        return;
+      }
+      persistEach(batch);
+    }
+    redisTemplate.delete(List.of(PROCESSING_KEY, ATTEMPTS_KEY));
+    log.debug(String.format("Like queue flushed, %d events processed", batch.size()));
+  }
+
+  private void persistEach(List<String> batch) {
+    int dead = 0;
+    for (String event : batch) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> persist(List.of(event)));
+      } catch (RuntimeException e) {
+        redisTemplate.opsForList().leftPush(DEAD_LETTER_KEY, event);
+        dead++;
+      }
+    }
+    if (dead > 0) {
+      log.error(String.format("Like queue batch failed %d times, %d events moved to %s",
+          flushMaxAttempts, dead, DEAD_LETTER_KEY));
+    }
+  }
+
+  private List<String> pendingBatch() {
+    List<String> leftover = redisTemplate.opsForList().range(PROCESSING_KEY, 0, -1);
+    if (leftover != null && !leftover.isEmpty()) {
+      List<String> batch = new ArrayList<>(leftover);
+      Collections.reverse(batch);
+      return batch;
+    }
+    List<String> batch = new ArrayList<>();
+    for (int i = 0; i < flushBatchSize; i++) {
+      String event = redisTemplate.opsForList().rightPopAndLeftPush(QUEUE_KEY, PROCESSING_KEY);
+      if (event == null) {
+        break;
+      }
+      batch.add(event);
+    }
+    return batch;
+  }
+
+  private void persist(List<String> batch) {
+    Map<String, LikeEvent> lastEvents = new LinkedHashMap<>();
+    batch.stream().map(LikeEvent::parse).forEach(event -> lastEvents.put(event.target(), event));
+    lastEvents.values().forEach(event -> {
+      if (event.added()) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.time()), ZoneId.systemDefault());
+        if (event.type() == LikeType.POST) {
+          likeRepository.insertPostLike(event.userId(), event.entityId(), time);
+        } else {
+          likeRepository.insertCommentLike(event.userId(), event.entityId(), time);
+        }
+      } else if (event.type() == LikeType.POST) {
+        likeRepository.deletePostLike(event.userId(), event.entityId());
+      } else {
+        likeRepository.deleteCommentLike(event.userId(), event.entityId());
+      }
+    });
+  }
+
+  private void enqueue(LikeEvent event) {
+    redisTemplate.opsForList().leftPush(QUEUE_KEY, event.toString());
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private String key(LikeType type, long entityId) {
+    return KEY_PREFIX + type.name() + ":" + entityId;
+  }
+
+  private double toScore(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  public record LikeSummary(int count, boolean liked) {
+    public static final LikeSummary NONE = new LikeSummary(0, false);
+  }
+
+  private record LikeEvent(boolean added, LikeType type, long entityId, long userId, long time) {
+
+    static LikeEvent parse(String value) {
+      String[] parts = value.split(":");
+      return new LikeEvent("1".equals(parts[0]), LikeType.valueOf(parts[1]),
+          Long.parseLong(parts[2]), Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+    }
+
+    String target() {
+      return type.name() + ":" + entityId + ":" + userId;
+    }
+
+    @Override
+    public String toString() {
+      return (added ? "1" : "0") + ":" + type.name() + ":" + entityId + ":" + userId + ":" + time;
+    }
+  }
+}
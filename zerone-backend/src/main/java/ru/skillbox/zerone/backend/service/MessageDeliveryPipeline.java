@@ -0,0 +1,156 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+import ru.skillbox.zerone.backend.model.entity.Message;
+import ru.skillbox.zerone.backend.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageDeliveryPipeline {
+  private final SocketIOService socketIOService;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${messages.delivery.workers}")
+  private int workers;
+  @Value("${messages.delivery.queue-capacity}")
+  private int queueCapacity;
+  @Value("${messages.delivery.submit-timeout}")
+  private long submitTimeout;
+  @Value("${messages.delivery.max-attempts}")
+  private int maxAttempts;
+  @Value("${messages.delivery.retry-backoff}")
+  private long retryBackoff;
+  @Value("${messages.delivery.shutdown-timeout}")
+  private long shutdownTimeout;
+
+  private ThreadPoolExecutor[] stripes;
+  private Counter submitted;
+  private Counter delivered;
+  private Counter retried;
+  private Counter failed;
+  private Counter overflowed;
+  private Timer latency;
+
+  @PostConstruct
+  public void start() {
+    stripes = new ThreadPoolExecutor[workers];
+    for (int i = 0; i < workers; i++) {
+      var name = "message-delivery-" + i;
+      stripes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(queueCapacity),
+          runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+          },
+          waitOrReject());
+    }
+    Gauge.builder("messages.delivery.backlog", this, MessageDeliveryPipeline::backlog)
+        .description("Messages waiting for socket delivery")
+        .register(meterRegistry);
+    submitted = meterRegistry.counter("messages.delivery.submitted");
+    delivered = meterRegistry.counter("messages.delivery.delivered");
+    retried = meterRegistry.counter("messages.delivery.retried");
+    failed = meterRegistry.counter("messages.delivery.failed");
+    overflowed = meterRegistry.counter("messages.delivery.overflowed");
+    latency = meterRegistry.timer("messages.delivery.latency");
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    for (var stripe : stripes) {
+      stripe.shutdown();
+    }
+    for (var stripe : stripes) {
+      if (!stripe.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
+        log.warn(String.format("Message delivery stopped with %d undelivered messages", stripe.getQueue().size()));
+        stripe.shutdownNow();
+      }
+    }
+  }
+
+  public void submit(Message message) {
+    var task = new DelegatingSecurityContextRunnable(() -> deliver(message));
+    TransactionUtils.afterCommit(() -> {
+      submitted.increment();
+      stripes[stripe(message.getDialog().getId())].execute(task);
+    });
+  }
+
+  int backlog() {
+    return Arrays.stream(stripes).mapToInt(stripe -> stripe.getQueue().size()).sum();
+  }
+
+  private void deliver(Message message) {
+    if (attempt(message, () -> socketIOService.sendMessageEvent(message))) {
+      delivered.increment();
+      latency.record(Duration.between(message.getSentTime(), LocalDateTime.now()));
+    }
+  }
+
+  private boolean attempt(Message message, DeliveryStep action) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        action.run();
+        return true;
+      } catch (Exception e) {
+        if (attempt >= maxAttempts) {
+          failed.increment();
+          log.warn(String.format("Message %d socket delivery failed after %d attempts: %s",
+              message.getId(), attempt, e.getMessage()));
+          return false;
+        }
+        retried.increment();
+      }
+      try {
+        Thread.sleep(retryBackoff * attempt);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failed.increment();
+        return false;
+      }
+    }
+  }
+
+  private int stripe(long dialogId) {
+    return Math.floorMod(Long.hashCode(dialogId), workers);
+  }
+
+  private RejectedExecutionHandler waitOrReject() {
+    return (task, executor) -> {
+      try {
+        if (!executor.isShutdown() && executor.getQueue().offer(task, submitTimeout, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      overflowed.increment();
+      log.warn(String.format("Message delivery queue is full, delivery rejected after %d ms", submitTimeout));
+    };
+  }
+
+  @FunctionalInterface
+  private interface DeliveryStep {
+    void run() throws Exception;
+  }
+}
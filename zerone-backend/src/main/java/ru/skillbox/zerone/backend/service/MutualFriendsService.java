@@ -0,0 +1,155 @@
+package ru.skillbox.zerone.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.skillbox.zerone.backend.mapstruct.UserMapper;
+import ru.skillbox.zerone.backend.model.dto.response.CommonListResponseDTO;
+import ru.skillbox.zerone.backend.model.dto.response.MutualFriendsCountDTO;
+import ru.skillbox.zerone.backend.model.dto.response.UserDTO;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+import ru.skillbox.zerone.backend.util.CurrentUserUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+@Service
+@RequiredArgsConstructor
+public class MutualFriendsService {
+  private final FriendGraph friendGraph;
+  private final UserRepository userRepository;
+  private final UserMapper userMapper;
+  private final Map<PairKey, long[]> cache = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<PairKey, long[]> eldest) {
+      if (size() <= cacheSize) {
+        return false;
+      }
+      unindex(eldest.getKey());
+      return true;
+    }
+  };
+  private final Map<Long, Set<PairKey>> keysByUser = new HashMap<>();
+  private long generation;
+
+  @Value("${friends.mutual.cache-size}")
+  private int cacheSize;
+
+  @PostConstruct
+  public void subscribe() {
+    friendGraph.onChange(this::evict);
+  }
+
+  public CommonListResponseDTO<UserDTO> getMutualFriends(long id, int offset, int itemPerPage) {
+    var user = CurrentUserUtils.getCurrentUser();
+    var mutual = mutual(user.getId(), id);
+    var from = Math.min(offset, mutual.length);
+    var to = (int) Math.min((long) from + itemPerPage, mutual.length);
+    var pageIds = LongStream.of(Arrays.copyOfRange(mutual, from, to)).boxed().toList();
+
+    var friends = pageIds.isEmpty() ? List.<User>of() : userRepository.findUsersByIdIn(pageIds).stream()
+        .sorted(Comparator.comparingInt(friend -> pageIds.indexOf(friend.getId())))
+        .toList();
+
+    return CommonListResponseDTO.<UserDTO>builder()
+        .total(mutual.length)
+        .perPage(itemPerPage)
+        .offset(offset)
+        .data(userMapper.usersToUserDTO(friends))
+        .build();
+  }
+
+  public CommonListResponseDTO<MutualFriendsCountDTO> getMutualFriendsCounts(Collection<Long> ids) {
+    var user = CurrentUserUtils.getCurrentUser();
+
+    var counts = ids.stream()
+        .distinct()
+        .map(id -> new MutualFriendsCountDTO(id, mutual(user.getId(), id).length))
+        .toList();
+
+    return CommonListResponseDTO.<MutualFriendsCountDTO>builder()
+        .total(counts.size())
+        .data(counts)
+        .build();
+  }
+
+  public long[] mutual(long userId, long otherId) {
+    if (userId == otherId) {
+      return new long[0];
+    }
+    var key = new PairKey(Math.min(userId, otherId), Math.max(userId, otherId));
+    long seen;
+    synchronized (cache) {
+      var cached = cache.get(key);
+      if (cached != null) {
+        return cached;
+      }
+      seen = generation;
+    }
+
+    var ids = intersect(friendGraph.friendsOf(userId), friendGraph.friendsOf(otherId));
+    synchronized (cache) {
+      if (seen == generation && cache.put(key, ids) == null) {
+        keysByUser.computeIfAbsent(key.low(), k -> new HashSet<>()).add(key);
+        keysByUser.computeIfAbsent(key.high(), k -> new HashSet<>()).add(key);
+      }
+    }
+    return ids;
+  }
+
+  private void evict(Set<Long> userIds) {
+    synchronized (cache) {
+      generation++;
+      userIds.forEach(userId -> {
+        var keys = keysByUser.remove(userId);
+        if (keys != null) {
+          keys.forEach(key -> {
+            cache.remove(key);
+            unindex(key);
+          });
+        }
+      });
+    }
+  }
+
+  private void unindex(PairKey key) {
+    for (long userId : new long[]{key.low(), key.high()}) {
+      var keys = keysByUser.get(userId);
+      if (keys != null && keys.remove(key) && keys.isEmpty()) {
+        keysByUser.remove(userId);
+      }
+    }
+  }
+
+  private static long[] intersect(long[] left, long[] right) {
+    var result = new long[Math.min(left.length, right.length)];
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < left.length && j < right.length) {
+      if (left[i] < right[j]) {
+        i++;
+      } else if (left[i] > right[j]) {
+        j++;
+      } else {
+        result[count++] = left[i];
+        i++;
+        j++;
+      }
+    }
+    return count == result.length ? result : Arrays.copyOf(result, count);
+  }
+
+  private record PairKey(long low, long high) {
+  }
+}
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import ru.skillbox.zerone.backend.exception.PostCreationException;
 import ru.skillbox.zerone.backend.exception.PostNotFoundException;
@@ -21,9 +22,11 @@ import ru.skillbox.zerone.backend.model.entity.User;
 import ru.skillbox.zerone.backend.repository.PostFileRepository;
 import ru.skillbox.zerone.backend.repository.PostRepository;
 import ru.skillbox.zerone.backend.util.CurrentUserUtils;
+import ru.skillbox.zerone.backend.util.CursorUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -38,6 +41,7 @@ public class PostService {
   private final SearchService searchService;
   private final PostMapper postMapper;
   private final NotificationService notificationService;
+  private final FeedService feedService;
 
   private static final Pattern pattern = Pattern.compile("<img\\s+[^>]*src=\"([^\"]*)\"[^>]*>");
 
@@ -64,6 +68,7 @@ public class PostService {
     }
 
     postRepository.save(post);
+    feedService.fanOut(post);
     notificationService.savePost(post);
 
     return commonResponseDTO(post);
@@ -80,11 +85,12 @@ public class PostService {
         .collect(Collectors.toList());
   }
 
-  public CommonListResponseDTO<PostDTO> getFeeds(int offset, int itemPerPage) {
+  public CommonListResponseDTO<PostDTO> getFeeds(int offset, int itemPerPage, String cursor) {
     long myId = CurrentUserUtils.getCurrentUser().getId();
-    Pageable pageable = PageRequest.of(offset / itemPerPage, itemPerPage);
-    Page<Post> pageablePostList = postRepository.getPostsForFeeds(myId, pageable);
-    return commonListResponseDTO(offset, itemPerPage, pageablePostList);
+    Slice<Post> feed = cursor == null
+        ? feedService.getFeed(myId, PageRequest.of(offset / itemPerPage, itemPerPage))
+        : feedService.getFeed(myId, CursorUtils.decode(cursor), PageRequest.of(0, itemPerPage));
+    return sliceListResponseDTO(offset, itemPerPage, feed, Post::getTime);
   }
 
   public CommonResponseDTO<PostDTO> getPostById(long id) {
@@ -93,13 +99,23 @@ public class PostService {
   }
 
 
-  public CommonListResponseDTO<PostDTO> getAuthorWall(long id, int offset, int itemPerPage) {
+  public CommonListResponseDTO<PostDTO> getAuthorWall(long id, int offset, int itemPerPage, String cursor) {
+    if (cursor != null) {
+      CursorUtils.Cursor wallCursor = CursorUtils.decode(cursor);
+      Slice<Post> posts = postRepository.getPostsForUsersWallBefore(id, wallCursor.time(), wallCursor.id(),
+          PageRequest.of(0, itemPerPage));
+      return sliceListResponseDTO(offset, itemPerPage, posts, Post::getUpdateTime);
+    }
     Pageable pageable = PageRequest.of(offset / itemPerPage, itemPerPage);
     Page<Post> pageablePostList = postRepository.getPostsForUsersWall(id, pageable);
     return commonListResponseDTO(offset, itemPerPage, pageablePostList);
   }
 
-  public CommonListResponseDTO<PostDTO> getPosts(String text, String author, String tag, Long dateFrom, int offset, int itemPerPage) {
+  public CommonListResponseDTO<PostDTO> getPosts(String text, String author, String tag, Long dateFrom, int offset, int itemPerPage, String cursor) {
+    if (cursor != null) {
+      Slice<Post> posts = searchService.searchPosts(text, author, tag, dateFrom, CursorUtils.decode(cursor), itemPerPage);
+      return sliceListResponseDTO(offset, itemPerPage, posts, Post::getUpdateTime);
+    }
     Pageable pageable = PageRequest.of(offset / itemPerPage, itemPerPage);
     Page<Post> pageablePostList = searchService.searchPosts(text, author, tag, dateFrom, pageable);
     return commonListResponseDTO(offset, itemPerPage, pageablePostList);
@@ -132,6 +148,7 @@ public class PostService {
     post.setTags(getTagsByPost(requestBody.getTags()));
     post.setTime(publishDate.isBefore(LocalDateTime.now()) ? LocalDateTime.now() : publishDate);
     postRepository.saveAndFlush(post);
+    feedService.reschedule(post);
     return commonResponseDTO(post);
   }
 
@@ -148,9 +165,29 @@ public class PostService {
         .perPage(itemPerPage)
         .offset(offset)
         .data(postMapper.toDtoList(pageablePostList.toList()))
+        .nextCursor(nextCursor(pageablePostList, Post::getUpdateTime))
         .build();
   }
 
+  private CommonListResponseDTO<PostDTO> sliceListResponseDTO(int offset, int itemPerPage, Slice<Post> posts,
+                                                              Function<Post, LocalDateTime> cursorTime) {
+    return CommonListResponseDTO.<PostDTO>builder()
+        .total(posts.hasNext() ? offset + itemPerPage + 1L : offset + posts.getNumberOfElements())
+        .perPage(itemPerPage)
+        .offset(offset)
+        .data(postMapper.toDtoList(posts.getContent()))
+        .nextCursor(nextCursor(posts, cursorTime))
+        .build();
+  }
+
+  private String nextCursor(Slice<Post> posts, Function<Post, LocalDateTime> cursorTime) {
+    if (!posts.hasNext() || !posts.hasContent()) {
+      return null;
+    }
+    Post last = posts.getContent().get(posts.getNumberOfElements() - 1);
+    return CursorUtils.encode(cursorTime.apply(last), last.getId());
+  }
+
   private void checkPostAuthor(Post post) {
     User user = CurrentUserUtils.getCurrentUser();
     if (!user.getId().equals(post.getAuthor().getId())) {
@@ -0,0 +1,103 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresenceService {
+  private final SocketSessionRegistry sessionRegistry;
+  private final ClusterEventBus clusterEventBus;
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final Map<Long, LocalDateTime> lastSeen = new ConcurrentHashMap<>();
+
+  @Value("${presence.flush-batch-size}")
+  private int flushBatchSize;
+
+  private Counter flushed;
+
+  @PostConstruct
+  public void registerMetrics() {
+    Gauge.builder("presence.pending", lastSeen, Map::size)
+        .description("Last-seen timestamps waiting to be written to the database")
+        .register(meterRegistry);
+    flushed = meterRegistry.counter("presence.flushed");
+  }
+
+  public void touch(long userId) {
+    var now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    lastSeen.merge(userId, now, (current, next) -> next.isAfter(current) ? next : current);
+  }
+
+  public Optional<LocalDateTime> lastSeen(long userId) {
+    return Optional.ofNullable(lastSeen.get(userId));
+  }
+
+  public Set<Long> onlineAmong(Collection<Long> userIds) {
+    var online = new HashSet<Long>();
+    var elsewhere = new ArrayList<Long>();
+    userIds.forEach(userId -> {
+      if (sessionRegistry.isConnected(userId)) {
+        online.add(userId);
+      } else {
+        elsewhere.add(userId);
+      }
+    });
+    if (!elsewhere.isEmpty()) {
+      online.addAll(clusterEventBus.connectedAnywhere(elsewhere));
+    }
+    return online;
+  }
+
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${presence.flush-delay}")
+  public void flush() {
+    var batch = new LinkedHashMap<Long, LocalDateTime>();
+    for (var entry : lastSeen.entrySet()) {
+      batch.put(entry.getKey(), entry.getValue());
+      if (batch.size() == flushBatchSize) {
+        write(batch);
+        batch.clear();
+      }
+    }
+    write(batch);
+  }
+
+  private void write(Map<Long, LocalDateTime> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    var payload = batch.entrySet().stream()
+        .map(entry -> String.format("{\"id\":%d,\"time\":\"%s\"}", entry.getKey(), entry.getValue()))
+        .collect(Collectors.joining(",", "[", "]"));
+    transactionTemplate.executeWithoutResult(status -> userRepository.updateLastOnlineTimes(payload));
+    batch.forEach((id, time) -> lastSeen.remove(id, time));
+    flushed.increment(batch.size());
+    log.debug(String.format("Presence flushed, %d last-seen timestamps persisted", batch.size()));
+  }
+}
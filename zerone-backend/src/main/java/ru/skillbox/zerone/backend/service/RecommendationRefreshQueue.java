@@ -0,0 +1,107 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.skillbox.zerone.backend.util.TransactionUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationRefreshQueue {
+  private final RecommendationService recommendationService;
+  private final MeterRegistry meterRegistry;
+  private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+  @Value("${recommendations.refresh.debounce}")
+  private long debounce;
+  @Value("${recommendations.refresh.max-delay}")
+  private long maxDelay;
+  @Value("${recommendations.refresh.poll-delay}")
+  private long pollDelay;
+
+  private ScheduledExecutorService executor;
+  private Counter requested;
+  private Counter completed;
+  private Counter failed;
+  private Timer lag;
+
+  @PostConstruct
+  public void start() {
+    Gauge.builder("recommendations.refresh.backlog", pending, Map::size)
+        .description("Users waiting for a recommendation refresh")
+        .register(meterRegistry);
+    Gauge.builder("recommendations.refresh.oldest.age", this, queue -> queue.oldestAge(System.currentTimeMillis()))
+        .description("Age of the oldest pending refresh request, ms")
+        .register(meterRegistry);
+    requested = meterRegistry.counter("recommendations.refresh.requested");
+    completed = meterRegistry.counter("recommendations.refresh.completed");
+    failed = meterRegistry.counter("recommendations.refresh.failed");
+    lag = meterRegistry.timer("recommendations.refresh.lag");
+
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "recommendation-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(() -> drain(System.currentTimeMillis()), pollDelay, pollDelay, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  public void enqueue(long userId) {
+    TransactionUtils.afterCommit(() -> schedule(userId, System.currentTimeMillis()));
+  }
+
+  void schedule(long userId, long now) {
+    requested.increment();
+    pending.merge(userId, new Pending(now, now + debounce),
+        (current, next) -> new Pending(current.requestedAt(), Math.min(now + debounce, current.requestedAt() + maxDelay)));
+  }
+
+  void drain(long now) {
+    pending.forEach((userId, request) -> {
+      if (request.dueAt() > now || !pending.remove(userId, request)) {
+        return;
+      }
+      try {
+        recommendationService.refresh(userId);
+        completed.increment();
+        lag.record(System.currentTimeMillis() - request.requestedAt(), TimeUnit.MILLISECONDS);
+      } catch (RuntimeException e) {
+        failed.increment();
+        log.warn(String.format("Recommendation refresh failed for user %d: %s", userId, e.getMessage()));
+      }
+    });
+  }
+
+  int backlog() {
+    return pending.size();
+  }
+
+  private double oldestAge(long now) {
+    return pending.values().stream()
+        .mapToLong(request -> now - request.requestedAt())
+        .max()
+        .orElse(0);
+  }
+
+  private record Pending(long requestedAt, long dueAt) {
+  }
+}
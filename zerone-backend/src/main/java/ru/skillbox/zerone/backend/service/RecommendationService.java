@@ -0,0 +1,318 @@
+package ru.skillbox.zerone.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skillbox.zerone.backend.model.entity.Recommendation;
+import ru.skillbox.zerone.backend.model.entity.RecommendationCheckpoint;
+import ru.skillbox.zerone.backend.model.projection.RecommendationProfile;
+import ru.skillbox.zerone.backend.repository.RecommendationCheckpointRepository;
+import ru.skillbox.zerone.backend.repository.RecommendationRepository;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecommendationService {
+  private static final double MUTUAL_FRIEND_WEIGHT = 3;
+  private static final double SAME_CITY_WEIGHT = 2;
+  private static final double RECENT_ACTIVITY_WEIGHT = 1;
+  private static final long RECENT_ACTIVITY_PERIOD = TimeUnit.DAYS.toMillis(30);
+  private static final long CHECKPOINT_ID = 1L;
+  private static final String REFRESH_LOCK_KEY = "recommendations:refresh:lock";
+  private static final Duration REFRESH_LOCK_TTL = Duration.ofHours(6);
+
+  private final FriendGraph friendGraph;
+  private final UserRepository userRepository;
+  private final RecommendationRepository recommendationRepository;
+  private final RecommendationCheckpointRepository checkpointRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final RedisLockService redisLockService;
+
+  @Value("${recommendations.size}")
+  private int size;
+  @Value("${recommendations.fallback-pool-size}")
+  private int fallbackPoolSize;
+  @Value("${recommendations.parallelism}")
+  private int parallelism;
+  @Value("${recommendations.chunk-size}")
+  private int chunkSize;
+
+  public Recommendation refresh(long userId) {
+    var candidates = friendsOfFriends(userId, friendGraph.friendsOf(userId));
+    var profiles = loadProfiles(new long[]{userId}, new long[][]{candidates});
+    if (profiles.indexOf(userId) < 0) {
+      return null;
+    }
+    var recommendation = Recommendation.builder()
+        .id(userId)
+        .recommendedFriends(toList(recommend(userId, candidates, profiles, new FallbackPools())))
+        .build();
+    return recommendationRepository.save(recommendation);
+  }
+
+  @Scheduled(cron = "${scheduled-tasks.recommendation-creator}")
+  public void refreshAll() {
+    redisLockService.runExclusively(REFRESH_LOCK_KEY, REFRESH_LOCK_TTL, this::refreshStale);
+  }
+
+  private void refreshStale() {
+    var checkpoint = checkpointRepository.findById(CHECKPOINT_ID)
+        .orElseGet(() -> RecommendationCheckpoint.builder()
+            .id(CHECKPOINT_ID)
+            .startedAt(LocalDateTime.now())
+            .lastUserId(0L)
+            .build());
+    if (checkpoint.getLastUserId() > 0) {
+      log.info(String.format("Resuming recommendations run started at %s after user %d",
+          checkpoint.getStartedAt(), checkpoint.getLastUserId()));
+    }
+
+    var pools = new FallbackPools();
+    var pool = new ForkJoinPool(parallelism);
+    long processed = 0;
+    try {
+      List<Long> chunk;
+      do {
+        chunk = recommendationRepository.findStaleUserIds(checkpoint.getLastUserId(), chunkSize);
+        if (!chunk.isEmpty()) {
+          var payload = computeChunk(pool, chunk.stream().mapToLong(Long::longValue).toArray(), pools);
+          checkpoint.setLastUserId(chunk.get(chunk.size() - 1));
+          transactionTemplate.executeWithoutResult(status -> {
+            recommendationRepository.upsertAll(payload, checkpoint.getStartedAt());
+            checkpointRepository.save(checkpoint);
+          });
+          processed += chunk.size();
+        }
+      } while (chunk.size() == chunkSize);
+    } finally {
+      pool.shutdown();
+    }
+    checkpointRepository.deleteById(CHECKPOINT_ID);
+    log.info(String.format("Recommendations rebuilt for %d users", processed));
+  }
+
+  private String computeChunk(ForkJoinPool pool, long[] userIds, FallbackPools pools) {
+    var candidates = new long[userIds.length][];
+    var recommendations = new long[userIds.length][];
+    pool.submit(() -> IntStream.range(0, userIds.length).parallel()
+        .forEach(i -> candidates[i] = friendsOfFriends(userIds[i], friendGraph.friendsOf(userIds[i])))).join();
+    var profiles = loadProfiles(userIds, candidates);
+    pool.submit(() -> IntStream.range(0, userIds.length).parallel()
+        .forEach(i -> recommendations[i] = profiles.indexOf(userIds[i]) < 0
+            ? new long[0]
+            : recommend(userIds[i], candidates[i], profiles, pools))).join();
+    return IntStream.range(0, userIds.length)
+        .mapToObj(i -> String.format("{\"id\":%d,\"friends\":%s}", userIds[i], Arrays.toString(recommendations[i])))
+        .collect(Collectors.joining(",", "[", "]"));
+  }
+
+  private Profiles loadProfiles(long[] userIds, long[][] candidates) {
+    var ids = new HashSet<Long>();
+    LongStream.of(userIds).forEach(ids::add);
+    Arrays.stream(candidates).flatMapToLong(LongStream::of).forEach(ids::add);
+    return new Profiles(userRepository.findRecommendationProfilesByIdIn(ids));
+  }
+
+  private long[] recommend(long userId, long[] candidates, Profiles profiles, FallbackPools pools) {
+    var friends = friendGraph.friendsOf(userId);
+    var city = profiles.city(profiles.indexOf(userId));
+    long now = System.currentTimeMillis();
+    var top = new TopK(size);
+
+    for (long candidate : candidates) {
+      int index = profiles.indexOf(candidate);
+      if (index < 0 || friendGraph.status(userId, candidate) != null) {
+        continue;
+      }
+      int mutual = intersectionSize(friends, friendGraph.friendsOf(candidate));
+      double score = mutual * MUTUAL_FRIEND_WEIGHT;
+      if (city != null && !city.isBlank() && city.equals(profiles.city(index))) {
+        score += SAME_CITY_WEIGHT;
+      }
+      long age = now - profiles.lastOnline(index);
+      score += RECENT_ACTIVITY_WEIGHT * Math.max(0, 1 - (double) age / RECENT_ACTIVITY_PERIOD);
+      top.offer(candidate, score);
+    }
+
+    if (!top.isFull() && city != null && !city.isBlank()) {
+      fill(userId, top, pools.byCity(city));
+    }
+    if (!top.isFull()) {
+      fill(userId, top, pools.global());
+    }
+    return top.ids();
+  }
+
+  private void fill(long userId, TopK top, long[] pool) {
+    for (int i = 0; i < pool.length && !top.isFull(); i++) {
+      long candidate = pool[i];
+      if (candidate != userId && !top.contains(candidate) && friendGraph.status(userId, candidate) == null) {
+        top.append(candidate);
+      }
+    }
+  }
+
+  private long[] friendsOfFriends(long userId, long[] friends) {
+    var adjacency = new long[friends.length][];
+    int total = 0;
+    for (int i = 0; i < friends.length; i++) {
+      adjacency[i] = friendGraph.friendsOf(friends[i]);
+      total += adjacency[i].length;
+    }
+    var buffer = new long[total];
+    int position = 0;
+    for (var adjacent : adjacency) {
+      System.arraycopy(adjacent, 0, buffer, position, adjacent.length);
+      position += adjacent.length;
+    }
+    Arrays.sort(buffer);
+    int unique = 0;
+    for (long candidate : buffer) {
+      if (candidate != userId && (unique == 0 || candidate != buffer[unique - 1])) {
+        buffer[unique++] = candidate;
+      }
+    }
+    return Arrays.copyOf(buffer, unique);
+  }
+
+  private static int intersectionSize(long[] left, long[] right) {
+    int i = 0;
+    int j = 0;
+    int count = 0;
+    while (i < left.length && j < right.length) {
+      if (left[i] < right[j]) {
+        i++;
+      } else if (left[i] > right[j]) {
+        j++;
+      } else {
+        count++;
+        i++;
+        j++;
+      }
+    }
+    return count;
+  }
+
+  private static List<Long> toList(long[] values) {
+    return LongStream.of(values).boxed().toList();
+  }
+
+  private final class FallbackPools {
+    private final Map<String, long[]> byCity = new ConcurrentHashMap<>();
+    private volatile long[] global;
+
+    long[] byCity(String city) {
+      return byCity.computeIfAbsent(city, c ->
+          toArray(userRepository.findRecentlyOnlineIdsByCity(c, PageRequest.of(0, fallbackPoolSize))));
+    }
+
+    long[] global() {
+      if (global == null) {
+        global = toArray(userRepository.findRecentlyOnlineIds(PageRequest.of(0, fallbackPoolSize)));
+      }
+      return global;
+    }
+
+    private long[] toArray(List<Long> ids) {
+      return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+  }
+
+  private static final class Profiles {
+    private final long[] ids;
+    private final String[] cities;
+    private final long[] lastOnline;
+
+    private Profiles(List<RecommendationProfile> rows) {
+      var sorted = rows.stream()
+          .sorted(Comparator.comparing(RecommendationProfile::getId))
+          .toList();
+      ids = new long[sorted.size()];
+      cities = new String[sorted.size()];
+      lastOnline = new long[sorted.size()];
+      for (int i = 0; i < sorted.size(); i++) {
+        var row = sorted.get(i);
+        ids[i] = row.getId();
+        cities[i] = row.getCity();
+        lastOnline[i] = row.getLastOnlineTime() == null ? 0
+            : row.getLastOnlineTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+      }
+    }
+
+    int indexOf(long id) {
+      return Arrays.binarySearch(ids, id);
+    }
+
+    String city(int index) {
+      return index < 0 ? null : cities[index];
+    }
+
+    long lastOnline(int index) {
+      return lastOnline[index];
+    }
+  }
+
+  private static final class TopK {
+    private final long[] ids;
+    private final double[] scores;
+    private int count;
+
+    private TopK(int size) {
+      ids = new long[size];
+      scores = new double[size];
+    }
+
+    void offer(long id, double score) {
+      if (ids.length == 0 || isFull() && score <= scores[count - 1]) {
+        return;
+      }
+      int position = isFull() ? count - 1 : count++;
+      while (position > 0 && scores[position - 1] < score) {
+        ids[position] = ids[position - 1];
+        scores[position] = scores[position - 1];
+        position--;
+      }
+      ids[position] = id;
+      scores[position] = score;
+    }
+
+    void append(long id) {
+      ids[count] = id;
+      scores[count] = Double.NEGATIVE_INFINITY;
+      count++;
+    }
+
+    boolean contains(long id) {
+      for (int i = 0; i < count; i++) {
+        if (ids[i] == id) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean isFull() {
+      return count == ids.length;
+    }
+
+    long[] ids() {
+      return Arrays.copyOf(ids, count);
+    }
+  }
+}
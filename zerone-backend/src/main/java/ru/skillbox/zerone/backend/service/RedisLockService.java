@@ -0,0 +1,38 @@
+package ru.skillbox.zerone.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class RedisLockService {
+  private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+      if redis.call('GET', KEYS[1]) == ARGV[1] then
+        return redis.call('DEL', KEYS[1])
+      end
+      return 0
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+
+  public boolean runExclusively(String key, Duration ttl, Runnable action) {
+    String token = UUID.randomUUID().toString();
+    Boolean locked = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+    if (!Boolean.TRUE.equals(locked)) {
+      return false;
+    }
+    try {
+      action.run();
+      return true;
+    } finally {
+      redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+    }
+  }
+}
@@ -4,28 +4,41 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.QueryPart;
 import org.jooq.Record;
+import org.jooq.SortField;
+import org.jooq.Table;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import ru.skillbox.zerone.backend.model.entity.Post;
 import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.util.CursorUtils;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.tej.JooQDemo.jooq.sample.model.Tables.*;
-import static org.jooq.impl.DSL.noCondition;
-import static org.jooq.impl.DSL.trueCondition;
+import static org.jooq.impl.DSL.*;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
+  private static final Table<?> POST_WITH_AUTHOR = POST.join(USER).on(USER.ID.eq(POST.AUTHOR_ID));
+
   private final DSLContext dslContext;
 
   @Transactional
@@ -41,13 +54,25 @@ public class SearchService {
     return new PageImpl<>(users, pageable, usersCount);
   }
 
+  @Transactional
+  public Slice<User> searchUsersSlice(String name, String lastName, String country, String city, Integer ageFrom, Integer ageTo, Pageable pageable) {
+
+    Condition condition = createConditionForUsers(name, lastName, country, city, ageFrom, ageTo);
+
+    var users = dslContext.select().from(USER)
+        .where(condition).offset(pageable.getOffset()).limit(pageable.getPageSize() + 1).fetch(this::recordToUser);
+
+    boolean hasNext = users.size() > pageable.getPageSize();
+    return new SliceImpl<>(hasNext ? users.subList(0, pageable.getPageSize()) : users, pageable, hasNext);
+  }
+
   private Condition createConditionForUsers(String name, String lastName, String country, String city, Integer ageFrom, Integer ageTo) {
 
     return trueCondition()
-        .and((name != null) ? USER.FIRST_NAME.containsIgnoreCase(name) : noCondition())
-        .and((lastName != null) ? USER.LAST_NAME.containsIgnoreCase(lastName) : noCondition())
-        .and((country != null) ? USER.COUNTRY.containsIgnoreCase(country) : noCondition())
-        .and((city != null) ? USER.CITY.containsIgnoreCase(city) : noCondition())
+        .and((name != null) ? containsIgnoreCase(USER.FIRST_NAME, name) : noCondition())
+        .and((lastName != null) ? containsIgnoreCase(USER.LAST_NAME, lastName) : noCondition())
+        .and((country != null) ? containsIgnoreCase(USER.COUNTRY, country) : noCondition())
+        .and((city != null) ? containsIgnoreCase(USER.CITY, city) : noCondition())
         .and((ageFrom != null) ? USER.BIRTH_DATE.lessOrEqual(LocalDate.now().minusYears(ageFrom)) : noCondition())
         .and((ageTo != null) ? USER.BIRTH_DATE.greaterOrEqual(LocalDate.now().minusYears(ageTo)) : noCondition())
         .and(USER.IS_DELETED.eq(false))
@@ -59,34 +84,75 @@ public class SearchService {
 
     Condition condition = createConditionForPosts(text, author, tag, pubDate);
 
-    long postsCount = dslContext.fetchCount(POST, condition);
+    long postsCount = dslContext.fetchCount(POST_WITH_AUTHOR, condition);
+
+    List<SortField<?>> orderBy = new ArrayList<>();
+    if (text != null) {
+      orderBy.add(field("ts_rank({0}, {1})", Float.class, POST.SEARCH_VECTOR, searchQuery(text)).desc());
+    }
+    orderBy.add(POST.UPDATE_DATE.desc());
+    orderBy.add(POST.ID.desc());
 
     List<Post> postRecords = dslContext.select()
-        .from(POST)
-        .join(USER).on(USER.ID.eq(POST.AUTHOR_ID))
-        .where(condition).offset(pageable.getOffset()).limit(pageable.getPageSize()).fetch(this::recordToPost);
+        .from(POST_WITH_AUTHOR)
+        .where(condition)
+        .orderBy(orderBy)
+        .offset(pageable.getOffset()).limit(pageable.getPageSize()).fetch(this::recordToPost);
 
     return new PageImpl<>(postRecords, pageable, postsCount);
   }
 
+  @Transactional
+  public Slice<Post> searchPosts(String text, String author, String tag, Long pubDate, CursorUtils.Cursor cursor, int limit) {
+
+    Condition condition = createConditionForPosts(text, author, tag, pubDate)
+        .and(row(POST.UPDATE_DATE, POST.ID).lessThan(cursor.time(), cursor.id()));
+
+    List<Post> postRecords = dslContext.select()
+        .from(POST_WITH_AUTHOR)
+        .where(condition)
+        .orderBy(POST.UPDATE_DATE.desc(), POST.ID.desc())
+        .limit(limit + 1).fetch(this::recordToPost);
+
+    boolean hasNext = postRecords.size() > limit;
+    return new SliceImpl<>(hasNext ? postRecords.subList(0, limit) : postRecords, PageRequest.of(0, limit), hasNext);
+  }
+
   private Condition createConditionForPosts(String text, String author, String tag, Long pubDate) {
 
     return trueCondition()
         .and((pubDate != null) ? POST.UPDATE_DATE.greaterOrEqual(getPubDate(pubDate)) : noCondition())
-        .and((text != null) ? POST.POST_TEXT.containsIgnoreCase(text)
-            .or(POST.TITLE.containsIgnoreCase(text)) : noCondition())
-        .and((author != null) ? POST.AUTHOR_ID.in(dslContext.select(POST.AUTHOR_ID).from(POST)
-            .join(USER).on(USER.ID.eq(POST.AUTHOR_ID))
-            .where(conditionForAuthorName(author))) : noCondition())
-        .and((tag != null) ? POST.ID.in(dslContext.select(POST.ID).from(POST)
-            .join(POST_TO_TAG).on(POST.ID.eq(POST_TO_TAG.POST_ID))
+        .and((text != null) ? condition("{0} @@ {1}", POST.SEARCH_VECTOR, searchQuery(text)) : noCondition())
+        .and((author != null) ? conditionForAuthorName(author) : noCondition())
+        .and((tag != null) ? exists(selectOne().from(POST_TO_TAG)
             .join(TAG).on(TAG.ID.eq(POST_TO_TAG.TAG_ID))
-            .where(TAG.TAG_.containsIgnoreCase(tag))) : noCondition())
+            .where(POST_TO_TAG.POST_ID.eq(POST.ID))
+            .and(TAG.TAG_.containsIgnoreCase(tag))) : noCondition())
         .and(POST.IS_DELETED.eq(false))
         .and(POST.IS_BLOCKED.eq(false))
         .and((POST.TIME.lessThan(POST.UPDATE_DATE).or(POST.TIME.eq(POST.UPDATE_DATE))));
   }
 
+  private Field<Object> searchQuery(String text) {
+
+    List<String> words = Arrays.stream(text.trim().split("\\s+"))
+        .filter(word -> !word.isEmpty())
+        .toList();
+    if (words.isEmpty()) {
+      return field("plainto_tsquery('simple', {0})", Object.class, val(text));
+    }
+    String template = IntStream.range(0, words.size())
+        .mapToObj(i -> String.format("(plainto_tsquery('russian', {%d}) || plainto_tsquery('english', {%d}))", i, i))
+        .collect(Collectors.joining(" && "));
+    return field(template, Object.class, words.stream().map(word -> val(word)).toArray(QueryPart[]::new));
+  }
+
+  private Condition containsIgnoreCase(Field<String> field, String value) {
+
+    String escaped = value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    return field.likeIgnoreCase("%" + escaped + "%", '!');
+  }
+
   private LocalDateTime getPubDate(long pubDate) {
 
     return LocalDateTime.ofInstant(Instant.ofEpochMilli(pubDate),
@@ -98,13 +164,13 @@ public class SearchService {
     String[] authorName = author.split("\\s");
 
     return (authorName.length > 1) ?
-        (USER.FIRST_NAME.containsIgnoreCase(authorName[0])
-            .and(USER.LAST_NAME.containsIgnoreCase(authorName[1])))
-            .or(USER.FIRST_NAME.containsIgnoreCase(authorName[1])
-                .and(USER.LAST_NAME.containsIgnoreCase(authorName[0])))
+        (containsIgnoreCase(USER.FIRST_NAME, authorName[0])
+            .and(containsIgnoreCase(USER.LAST_NAME, authorName[1])))
+            .or(containsIgnoreCase(USER.FIRST_NAME, authorName[1])
+                .and(containsIgnoreCase(USER.LAST_NAME, authorName[0])))
         :
-        USER.FIRST_NAME.containsIgnoreCase(author)
-            .or(USER.LAST_NAME.containsIgnoreCase(author));
+        containsIgnoreCase(USER.FIRST_NAME, author)
+            .or(containsIgnoreCase(USER.LAST_NAME, author));
   }
 
   private Post recordToPost(Record postRecord) {
@@ -117,6 +183,7 @@ public class SearchService {
         .isDeleted(postRecord.get(POST.IS_DELETED))
         .updateTime(postRecord.get(POST.UPDATE_DATE))
         .time(postRecord.get(POST.TIME))
+        .commentCount(postRecord.get(POST.COMMENT_COUNT))
         .build();
   }
 
@@ -15,24 +15,18 @@ import ru.skillbox.zerone.backend.mapstruct.MessageMapper;
 import ru.skillbox.zerone.backend.model.dto.socket.request.AuthRequestDTO;
 import ru.skillbox.zerone.backend.model.dto.socket.request.ReadMessagesDataDTO;
 import ru.skillbox.zerone.backend.model.dto.socket.request.TypingDataDTO;
+import ru.skillbox.zerone.backend.model.dto.socket.response.ReadMessagesResponseDTO;
 import ru.skillbox.zerone.backend.model.dto.socket.response.SocketListResponseDTO;
-import ru.skillbox.zerone.backend.model.dto.socket.response.StartTypingResponseDTO;
 import ru.skillbox.zerone.backend.model.entity.Dialog;
 import ru.skillbox.zerone.backend.model.entity.Message;
 import ru.skillbox.zerone.backend.model.entity.User;
-import ru.skillbox.zerone.backend.model.entity.WebSocketConnection;
 import ru.skillbox.zerone.backend.repository.*;
 import ru.skillbox.zerone.backend.security.JwtTokenProvider;
 
-import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.UUID;
 
 import static java.util.Objects.isNull;
-import static java.util.Objects.nonNull;
-import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.BLOCKED;
-import static ru.skillbox.zerone.backend.model.enumerated.ReadStatus.SENT;
 
 @Slf4j
 @Service
@@ -42,9 +36,14 @@ public class SocketIOService {
   private static final String AUTH_RESPONSE_EVENT_TITLE = "auth-response";
   private final SocketIOServer server;
   private final WebSocketConnectionRepository webSocketConnectionRepository;
+  private final SocketSessionRegistry sessionRegistry;
+  private final ClusterEventBus clusterEventBus;
+  private final PresenceService presenceService;
+  private final SocketSessionLeaseService sessionLeaseService;
   private final DialogRepository dialogRepository;
-  private final MessageRepository messageRepository;
-  private final FriendshipRepository friendshipRepository;
+  private final DialogSummaryRepository dialogSummaryRepository;
+  private final UnreadCounterService unreadCounterService;
+  private final TypingService typingService;
   private final UserRepository userRepository;
   private final JwtTokenProvider jwtTokenProvider;
   private final MessageMapper messageMapper;
@@ -59,7 +58,6 @@ public class SocketIOService {
     server.stop();
   }
 
-  @Transactional
   public void authRequest(SocketIOClient client, AuthRequestDTO authRequestDTO) {
     String token = authRequestDTO.getToken();
     if (isNull(token)) {
@@ -68,13 +66,11 @@ public class SocketIOService {
     }
     String email = jwtTokenProvider.getUsername(token);
     userRepository.findUserByEmail(email).ifPresentOrElse(user -> {
-          WebSocketConnection connection = WebSocketConnection.builder()
-              .userId(user.getId().toString())
-              .sessionId(client.getSessionId())
-              .build();
-          webSocketConnectionRepository.save(connection);
-          user.setLastOnlineTime(LocalDateTime.now());
-          userRepository.save(user);
+          sessionLeaseService.lease(client.getSessionId(), user.getId());
+          if (sessionRegistry.register(user.getId(), client)) {
+            clusterEventBus.joined(user.getId());
+          }
+          presenceService.touch(user.getId());
 
           client.sendEvent(AUTH_RESPONSE_EVENT_TITLE, "ok");
         },
@@ -82,26 +78,14 @@ public class SocketIOService {
   }
 
   public void typingEvent(TypingDataDTO data, String type) {
-    validateAndFindDialogById(data.getDialogId()).ifPresent(dialog -> {
-      if (isSelfVaultMessage(dialog)) {
-        return;
-      }
-      var sender = dialog.getRecipient().getId().equals(data.getAuthorId()) ? dialog.getRecipient() : dialog.getSender();
-      var receiver = dialog.getRecipient().getId().equals(data.getAuthorId()) ? dialog.getSender() : dialog.getRecipient();
-
-      if (friendshipRepository.existsBySrcPersonAndDstPersonAndStatus(receiver, sender, BLOCKED)) {
-        return;
-      }
-
-      var sessionIdList = webSocketConnectionRepository.findAllByUserId(receiver.getId().toString());
-      sessionIdList.forEach(s -> {
-        switch (type.toLowerCase()) {
-          case "start" -> startTyping(s.getSessionId(), sender, dialog.getId());
-          case "stop" -> stopTyping(s.getSessionId(), sender, dialog.getId());
-          default -> throw new NoSuchElementException(String.format("Неверный тип события: %s", type));
-        }
-      });
-    });
+    if (isNull(data.getDialogId()) || isNull(data.getAuthorId())) {
+      return;
+    }
+    switch (type.toLowerCase()) {
+      case "start" -> typingService.start(data.getDialogId(), data.getAuthorId());
+      case "stop" -> typingService.stop(data.getDialogId(), data.getAuthorId());
+      default -> throw new NoSuchElementException(String.format("Неверный тип события: %s", type));
+    }
   }
 
   private Optional<Dialog> validateAndFindDialogById(Long dialogId) {
@@ -117,42 +101,28 @@ public class SocketIOService {
     return dialog.getRecipient().getId().equals(dialog.getSender().getId());
   }
 
-  public void startTyping(UUID sessionId, User sender, Long dialogId) {
-    var curUserClient = server.getClient(sessionId);
-    if (nonNull(curUserClient)) {
-      var response = StartTypingResponseDTO.builder()
-          .author(sender.getFirstName())
-          .authorId(sender.getId())
-          .dialogId(dialogId)
-          .build();
-      curUserClient.sendEvent("start-typing-response", response);
-    }
-  }
-
-  public void stopTyping(UUID sessionId, User sender, Long dialogId) {
-    var curUserClient = server.getClient(sessionId);
-    if (nonNull(curUserClient)) {
-      var response = StartTypingResponseDTO.builder()
-          .authorId(sender.getId())
-          .dialogId(dialogId)
-          .build();
-      curUserClient.sendEvent("stop-typing-response", response);
-    }
-  }
-
   @Transactional
   public void readMessages(SocketIOClient client, ReadMessagesDataDTO data) {
     validateAndFindDialogById(data.getDialogId()).ifPresent(dialog -> {
       if (isSelfVaultMessage(dialog)) {
         return;
       }
-      var optionalCurUserId = webSocketConnectionRepository.findById(client.getSessionId());
-      optionalCurUserId.ifPresent(connection -> {
-        var user = userRepository.findById(Long.valueOf(connection.getUserId()))
-            .orElseThrow(() -> new UserNotFoundException(connection.getUserId()));
-        var unreadMessagesCount = messageRepository.countByDialogAndAuthorAndReadStatus(dialog, user, SENT);
-        client.sendEvent("unread-response", unreadMessagesCount);
-      });
+      var optionalUserId = sessionRegistry.userOf(client.getSessionId());
+      optionalUserId.ifPresent(userId -> dialogSummaryRepository.findByDialogId(dialog.getId())
+          .ifPresent(summary -> {
+            var user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+            var companion = summary.companionOf(user);
+            if (unreadCounterService.markRead(dialog.getId(), user.getId(), summary.getLastMessageId())) {
+              var response = ReadMessagesResponseDTO.builder()
+                  .dialogId(dialog.getId())
+                  .readerId(user.getId())
+                  .lastReadMessageId(summary.getLastMessageId())
+                  .build();
+              sendEventToPerson(companion, "read-response", response);
+            }
+            client.sendEvent("unread-response", unreadCounterService.dialogUnread(companion.getId(), dialog.getId()));
+          }));
     });
   }
 
@@ -162,7 +132,7 @@ public class SocketIOService {
 
   public void newListener(SocketIOClient client) {
     var sessionId = client.getSessionId();
-    if (webSocketConnectionRepository.existsById(sessionId)) {
+    if (sessionRegistry.isRegistered(sessionId)) {
       client.sendEvent(AUTH_RESPONSE_EVENT_TITLE, "ok");
     } else {
       client.sendEvent(AUTH_RESPONSE_EVENT_TITLE, "not");
@@ -178,45 +148,28 @@ public class SocketIOService {
       var user = message.getDialog().getRecipient().getId().equals(message.getAuthor().getId()) ?
           message.getDialog().getSender() :
           message.getDialog().getRecipient();
-      var sessionIdList = webSocketConnectionRepository.findAllByUserId(user.getId().toString());
-
-      sessionIdList.forEach(s -> {
-        var userClient = server.getClient(s.getSessionId());
-
-        if (nonNull(userClient)) {
-          var response = messageMapper.messageToSocketMessageDataDTO(message);
-          var listResponse = SocketListResponseDTO.builder()
-              .data(response)
-              .build();
-
-          userClient.sendEvent("message", listResponse);
-        }
-      });
+      var response = messageMapper.messageToSocketMessageDataDTO(message);
+      var listResponse = SocketListResponseDTO.builder()
+          .data(response)
+          .build();
+      clusterEventBus.publish(user.getId(), "message", listResponse);
     } catch (Exception e) {
       throw new ZeroneSocketException(e);
     }
   }
 
-  @Transactional
   public <T> void sendEventToPerson(User person, String event, T dto) {
-    webSocketConnectionRepository.findAllByUserId(person.getId().toString())
-        .forEach(socket -> {
-          SocketIOClient client = server.getClient(socket.getSessionId());
-          if (client != null) {
-            client.sendEvent(event, dto);
-          }
-        });
+    clusterEventBus.publish(person.getId(), event, dto);
   }
 
   public void disconnect(SocketIOClient client) {
-    var optionalSession = webSocketConnectionRepository.findById(client.getSessionId());
-    optionalSession.ifPresentOrElse(s -> {
-          var user = userRepository.findById(Long.valueOf(s.getUserId()))
-              .orElseThrow(() -> new UserNotFoundException(s.getUserId()));
-          user.setLastOnlineTime(LocalDateTime.now());
-          userRepository.save(user);
-          webSocketConnectionRepository.delete(s);
-          log.debug(String.format("Client with session: %s disconnected", s.getSessionId()));
+    sessionRegistry.unregister(client).ifPresentOrElse(userId -> {
+          webSocketConnectionRepository.deleteById(client.getSessionId());
+          if (!sessionRegistry.isConnected(userId)) {
+            clusterEventBus.left(userId);
+          }
+          presenceService.touch(userId);
+          log.debug(String.format("Client with session: %s disconnected", client.getSessionId()));
         },
         () -> log.debug(String.format("No stored session found: %s", client.getSessionId())));
   }
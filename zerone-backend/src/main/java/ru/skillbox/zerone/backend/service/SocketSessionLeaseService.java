@@ -0,0 +1,183 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.skillbox.zerone.backend.model.entity.WebSocketConnection;
+import ru.skillbox.zerone.backend.repository.WebSocketConnectionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SocketSessionLeaseService {
+  private static final String KEYSPACE = WebSocketConnection.class.getName();
+  private static final String USER_INDEX_PREFIX = KEYSPACE + ":userId:";
+  private static final String REAP_LOCK_KEY = "socket:reaper:lock";
+  private static final Duration REAP_LOCK_TTL = Duration.ofMinutes(5);
+  private static final RedisScript<Long> REAP_SCRIPT = new DefaultRedisScript<>("""
+      if redis.call('EXISTS', KEYS[1]) == 1 then
+        return 0
+      end
+      for _, index in ipairs(redis.call('SMEMBERS', KEYS[2])) do
+        redis.call('SREM', index, ARGV[1])
+      end
+      redis.call('DEL', KEYS[2])
+      redis.call('SREM', KEYS[3], ARGV[1])
+      if KEYS[4] then
+        redis.call('SREM', KEYS[4], ARGV[1])
+      end
+      return 1
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final WebSocketConnectionRepository webSocketConnectionRepository;
+  private final SocketSessionRegistry sessionRegistry;
+  private final ClusterEventBus clusterEventBus;
+  private final RedisLockService redisLockService;
+  private final MeterRegistry meterRegistry;
+  private final AtomicLong liveSessions = new AtomicLong();
+
+  @Value("${websocket.lease.ttl}")
+  private long ttl;
+  @Value("${websocket.lease.scan-count}")
+  private int scanCount;
+
+  private Counter renewed;
+  private Counter restored;
+  private Counter reaped;
+
+  @PostConstruct
+  public void registerMetrics() {
+    Gauge.builder("socket.sessions.live", liveSessions, AtomicLong::get)
+        .description("Socket sessions with a valid lease across the cluster, as of the last reaper run")
+        .register(meterRegistry);
+    renewed = meterRegistry.counter("socket.sessions.renewed");
+    restored = meterRegistry.counter("socket.sessions.restored");
+    reaped = meterRegistry.counter("socket.sessions.reaped");
+  }
+
+  public WebSocketConnection lease(UUID sessionId, long userId) {
+    return webSocketConnectionRepository.save(WebSocketConnection.builder()
+        .sessionId(sessionId)
+        .userId(Long.toString(userId))
+        .ttl(ttl)
+        .build());
+  }
+
+  @Scheduled(fixedDelayString = "${websocket.lease.heartbeat}")
+  public void renew() {
+    clusterEventBus.heartbeat();
+    var sessions = new ArrayList<>(sessionRegistry.sessions().entrySet());
+    if (sessions.isEmpty()) {
+      return;
+    }
+    var results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      sessions.forEach(session -> {
+        var sessionId = session.getKey().toString();
+        connection.keyCommands().expire(bytes(hashKey(sessionId)), ttl);
+        connection.setCommands().sAdd(bytes(USER_INDEX_PREFIX + session.getValue()), bytes(sessionId));
+      });
+      return null;
+    });
+    for (int i = 0; i < sessions.size(); i++) {
+      if (Boolean.TRUE.equals(results.get(i * 2))) {
+        renewed.increment();
+      } else {
+        var session = sessions.get(i);
+        lease(session.getKey(), session.getValue());
+        restored.increment();
+      }
+    }
+  }
+
+  @Scheduled(cron = "${scheduled-tasks.socket-session-reaper}")
+  public void reap() {
+    redisLockService.runExclusively(REAP_LOCK_KEY, REAP_LOCK_TTL, this::reapAll);
+  }
+
+  private void reapAll() {
+    long live = 0;
+    long dead = 0;
+    var options = ScanOptions.scanOptions().count(scanCount).build();
+    try (var cursor = redisTemplate.opsForSet().scan(KEYSPACE, options)) {
+      var batch = new ArrayList<String>(scanCount);
+      while (cursor.hasNext()) {
+        batch.add(cursor.next());
+        if (batch.size() == scanCount || !cursor.hasNext()) {
+          long reapedInBatch = reapExpired(batch, null);
+          live += batch.size() - reapedInBatch;
+          dead += reapedInBatch;
+          batch.clear();
+        }
+      }
+    }
+    dead += reapIndexes();
+    liveSessions.set(live);
+    reaped.increment(dead);
+    int routes = clusterEventBus.reapRoutes();
+    log.info(String.format("Socket session reaper: %d live, %d reaped, %d stale routes removed", live, dead, routes));
+  }
+
+  private long reapIndexes() {
+    long dead = 0;
+    var options = ScanOptions.scanOptions().match(USER_INDEX_PREFIX + "*").count(scanCount).build();
+    try (var cursor = redisTemplate.scan(options)) {
+      while (cursor.hasNext()) {
+        var index = cursor.next();
+        var sessionIds = redisTemplate.opsForSet().members(index);
+        if (sessionIds != null && !sessionIds.isEmpty()) {
+          dead += reapExpired(new ArrayList<>(sessionIds), index);
+        }
+      }
+    }
+    return dead;
+  }
+
+  private long reapExpired(List<String> sessionIds, String index) {
+    var leased = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      sessionIds.forEach(sessionId -> connection.keyCommands().exists(bytes(hashKey(sessionId))));
+      return null;
+    });
+    long dead = 0;
+    for (int i = 0; i < sessionIds.size(); i++) {
+      if (!Boolean.TRUE.equals(leased.get(i)) && reapSession(sessionIds.get(i), index)) {
+        dead++;
+      }
+    }
+    return dead;
+  }
+
+  private boolean reapSession(String sessionId, String index) {
+    var hashKey = hashKey(sessionId);
+    var keys = index == null
+        ? List.of(hashKey, hashKey + ":idx", KEYSPACE)
+        : List.of(hashKey, hashKey + ":idx", KEYSPACE, index);
+    return Long.valueOf(1).equals(redisTemplate.execute(REAP_SCRIPT, keys, sessionId));
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String hashKey(String sessionId) {
+    return KEYSPACE + ":" + sessionId;
+  }
+}
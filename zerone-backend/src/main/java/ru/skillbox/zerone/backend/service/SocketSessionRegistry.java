@@ -0,0 +1,88 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class SocketSessionRegistry {
+  private final MeterRegistry meterRegistry;
+  private final Map<Long, Set<SocketIOClient>> clientsByUser = new ConcurrentHashMap<>();
+  private final Map<UUID, Long> userBySession = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void registerMetrics() {
+    Gauge.builder("socket.sessions.local", userBySession, Map::size)
+        .description("Socket sessions authenticated on this node")
+        .register(meterRegistry);
+    Gauge.builder("socket.users.local", clientsByUser, Map::size)
+        .description("Users with at least one socket session on this node")
+        .register(meterRegistry);
+  }
+
+  public boolean register(long userId, SocketIOClient client) {
+    var previous = userBySession.put(client.getSessionId(), userId);
+    if (previous != null && previous != userId) {
+      remove(previous, client);
+    }
+    var first = new boolean[1];
+    clientsByUser.compute(userId, (id, clients) -> {
+      first[0] = clients == null;
+      var result = first[0] ? ConcurrentHashMap.<SocketIOClient>newKeySet() : clients;
+      result.add(client);
+      return result;
+    });
+    return first[0];
+  }
+
+  public Optional<Long> unregister(SocketIOClient client) {
+    var userId = userBySession.remove(client.getSessionId());
+    if (userId != null) {
+      remove(userId, client);
+    }
+    return Optional.ofNullable(userId);
+  }
+
+  public Collection<SocketIOClient> clients(long userId) {
+    return clientsByUser.getOrDefault(userId, Set.of());
+  }
+
+  public boolean isConnected(long userId) {
+    return clientsByUser.containsKey(userId);
+  }
+
+  public Set<Long> users() {
+    return clientsByUser.keySet();
+  }
+
+  public Map<UUID, Long> sessions() {
+    return Collections.unmodifiableMap(userBySession);
+  }
+
+  public Optional<Long> userOf(UUID sessionId) {
+    return Optional.ofNullable(userBySession.get(sessionId));
+  }
+
+  public boolean isRegistered(UUID sessionId) {
+    return userBySession.containsKey(sessionId);
+  }
+
+  private void remove(long userId, SocketIOClient client) {
+    clientsByUser.computeIfPresent(userId, (id, clients) -> {
+      clients.remove(client);
+      return clients.isEmpty() ? null : clients;
+    });
+  }
+}
@@ -0,0 +1,203 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.skillbox.zerone.backend.exception.DialogException;
+import ru.skillbox.zerone.backend.model.dto.socket.response.StartTypingResponseDTO;
+import ru.skillbox.zerone.backend.model.entity.Dialog;
+import ru.skillbox.zerone.backend.model.projection.DialogParticipants;
+import ru.skillbox.zerone.backend.repository.DialogRepository;
+import ru.skillbox.zerone.backend.util.TransactionUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.BLOCKED;
+
+@Service
+@RequiredArgsConstructor
+public class TypingService {
+  private static final String START_EVENT = "start-typing-response";
+  private static final String STOP_EVENT = "stop-typing-response";
+  private static final String FORGET_USER_TOPIC = "typing:forget-user";
+
+  private final DialogRepository dialogRepository;
+  private final FriendGraph friendGraph;
+  private final ClusterEventBus clusterEventBus;
+  private final ClusterBroadcast clusterBroadcast;
+  private final MeterRegistry meterRegistry;
+  private final Map<Long, Participants> participants = Collections.synchronizedMap(
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Participants> eldest) {
+          return size() > cacheSize;
+        }
+      });
+  private final Map<TypingKey, Typing> typing = new ConcurrentHashMap<>();
+
+  @Value("${typing.cache-size}")
+  private int cacheSize;
+  @Value("${typing.coalesce-window}")
+  private long coalesceWindow;
+  @Value("${typing.timeout}")
+  private long timeout;
+
+  private Counter received;
+  private Counter emitted;
+  private Counter coalesced;
+  private Counter expired;
+  private Counter misses;
+
+  @PostConstruct
+  public void start() {
+    clusterBroadcast.subscribe(FORGET_USER_TOPIC, Long.class, this::evictUser);
+    Gauge.builder("typing.active", typing, Map::size)
+        .description("Users currently shown as typing by this node")
+        .register(meterRegistry);
+    received = meterRegistry.counter("typing.events.received");
+    emitted = meterRegistry.counter("typing.events.emitted");
+    coalesced = meterRegistry.counter("typing.events.coalesced");
+    expired = meterRegistry.counter("typing.events.expired");
+    misses = meterRegistry.counter("typing.participants.misses");
+  }
+
+  public void start(long dialogId, long authorId) {
+    received.increment();
+    var dialog = participants(dialogId);
+    if (dialog.isSelf()) {
+      return;
+    }
+    var author = dialog.author(authorId);
+    var receiver = dialog.companionOf(authorId);
+    if (friendGraph.hasStatus(receiver.id(), author.id(), BLOCKED)) {
+      return;
+    }
+    var key = new TypingKey(dialogId, author.id());
+    var now = System.currentTimeMillis();
+    var emit = new boolean[1];
+    typing.compute(key, (k, current) -> {
+      emit[0] = current == null || now - current.emittedAt() >= coalesceWindow;
+      return new Typing(receiver.id(), emit[0] ? now : current.emittedAt(), now + timeout);
+    });
+    if (!emit[0]) {
+      coalesced.increment();
+      return;
+    }
+    send(receiver.id(), START_EVENT, StartTypingResponseDTO.builder()
+        .author(author.firstName())
+        .authorId(author.id())
+        .dialogId(dialogId)
+        .build());
+  }
+
+  public void stop(long dialogId, long authorId) {
+    received.increment();
+    var dialog = participants(dialogId);
+    if (dialog.isSelf()) {
+      return;
+    }
+    var key = new TypingKey(dialogId, dialog.author(authorId).id());
+    var current = typing.remove(key);
+    if (current == null) {
+      coalesced.increment();
+      return;
+    }
+    sendStop(key, current);
+  }
+
+  @Scheduled(fixedDelayString = "${typing.sweep-delay}")
+  public void expire() {
+    var now = System.currentTimeMillis();
+    typing.forEach((key, current) -> {
+      if (current.expiresAt() <= now && typing.remove(key, current)) {
+        sendStop(key, current);
+        expired.increment();
+      }
+    });
+  }
+
+  public void remember(Dialog dialog) {
+    participants.put(dialog.getId(), new Participants(
+        new Member(dialog.getSender().getId(), dialog.getSender().getFirstName()),
+        new Member(dialog.getRecipient().getId(), dialog.getRecipient().getFirstName())));
+  }
+
+  public void forgetUser(long userId) {
+    TransactionUtils.afterCommit(() -> {
+      evictUser(userId);
+      clusterBroadcast.publish(FORGET_USER_TOPIC, userId);
+    });
+  }
+
+  private void evictUser(long userId) {
+    synchronized (participants) {
+      participants.values().removeIf(dialog -> dialog.involves(userId));
+    }
+  }
+
+  private Participants participants(long dialogId) {
+    var cached = participants.get(dialogId);
+    if (cached != null) {
+      return cached;
+    }
+    misses.increment();
+    var loaded = dialogRepository.findParticipantsById(dialogId)
+        .map(TypingService::toParticipants)
+        .orElseThrow(() -> new DialogException(String.format("Диалог с id: \"%s\" не найден", dialogId)));
+    participants.put(dialogId, loaded);
+    return loaded;
+  }
+
+  private void sendStop(TypingKey key, Typing current) {
+    send(current.receiverId(), STOP_EVENT, StartTypingResponseDTO.builder()
+        .authorId(key.authorId())
+        .dialogId(key.dialogId())
+        .build());
+  }
+
+  private void send(long receiverId, String event, StartTypingResponseDTO response) {
+    clusterEventBus.publish(receiverId, event, response);
+    emitted.increment();
+  }
+
+  private static Participants toParticipants(DialogParticipants row) {
+    return new Participants(
+        new Member(row.getSenderId(), row.getSenderFirstName()),
+        new Member(row.getRecipientId(), row.getRecipientFirstName()));
+  }
+
+  private record Member(long id, String firstName) {
+  }
+
+  private record Participants(Member sender, Member recipient) {
+    boolean isSelf() {
+      return sender.id() == recipient.id();
+    }
+
+    boolean involves(long userId) {
+      return sender.id() == userId || recipient.id() == userId;
+    }
+
+    Member author(long authorId) {
+      return recipient.id() == authorId ? recipient : sender;
+    }
+
+    Member companionOf(long authorId) {
+      return recipient.id() == authorId ? sender : recipient;
+    }
+  }
+
+  private record TypingKey(long dialogId, long authorId) {
+  }
+
+  private record Typing(long receiverId, long emittedAt, long expiresAt) {
+  }
+}
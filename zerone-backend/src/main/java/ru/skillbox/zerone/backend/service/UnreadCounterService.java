@@ -0,0 +1,162 @@
+package ru.skillbox.zerone.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.skillbox.zerone.backend.model.projection.IdCount;
+import ru.skillbox.zerone.backend.repository.DialogSummaryRepository;
+import ru.skillbox.zerone.backend.util.TransactionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+  private static final String KEY_PREFIX = "unread:user:";
+  private static final String VERSION_KEY_PREFIX = "unread:version:";
+  private static final String REPAIR_LOCK_KEY = "unread:repair:lock";
+  private static final Duration REPAIR_LOCK_TTL = Duration.ofMinutes(10);
+  private static final String TOTAL_FIELD = "total";
+  private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>("""
+      redis.call('INCR', KEYS[2])
+      redis.call('EXPIRE', KEYS[2], ARGV[3])
+      if redis.call('EXISTS', KEYS[1]) == 0 then
+        return nil
+      end
+      redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+      return redis.call('HINCRBY', KEYS[1], 'total', ARGV[2])
+      """, Long.class);
+  private static final RedisScript<Long> SET_SCRIPT = new DefaultRedisScript<>("""
+      redis.call('INCR', KEYS[2])
+      redis.call('EXPIRE', KEYS[2], ARGV[3])
+      if redis.call('EXISTS', KEYS[1]) == 0 then
+        return nil
+      end
+      local previous = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0')
+      local value = tonumber(ARGV[2])
+      if value == 0 then
+        redis.call('HDEL', KEYS[1], ARGV[1])
+      else
+        redis.call('HSET', KEYS[1], ARGV[1], value)
+      end
+      return redis.call('HINCRBY', KEYS[1], 'total', value - previous)
+      """, Long.class);
+  private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>("""
+      if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+        return -1
+      end
+      redis.call('DEL', KEYS[1])
+      for i = 3, #ARGV, 2 do
+        redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+      end
+      redis.call('EXPIRE', KEYS[1], ARGV[2])
+      return (#ARGV - 2) / 2
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final DialogSummaryRepository dialogSummaryRepository;
+  private final RedisLockService redisLockService;
+
+  @Value("${unread.ttl}")
+  private long ttl;
+  @Value("${unread.repair-scan-count}")
+  private int repairScanCount;
+
+  public long total(long userId) {
+    var total = redisTemplate.<String, String>opsForHash().get(key(userId), TOTAL_FIELD);
+    return total == null ? load(userId) : Long.parseLong(total);
+  }
+
+  public int dialogUnread(long userId, long dialogId) {
+    if (Boolean.FALSE.equals(redisTemplate.hasKey(key(userId)))) {
+      load(userId);
+      if (Boolean.FALSE.equals(redisTemplate.hasKey(key(userId)))) {
+        return dialogSummaryRepository.findUnreadCount(dialogId, userId).orElse(0);
+      }
+    }
+    var count = redisTemplate.<String, String>opsForHash().get(key(userId), Long.toString(dialogId));
+    return count == null ? 0 : Integer.parseInt(count);
+  }
+
+  public void increment(long userId, long dialogId) {
+    TransactionUtils.afterCommit(() ->
+        redisTemplate.execute(INCREMENT_SCRIPT, List.of(key(userId), versionKey(userId)),
+            Long.toString(dialogId), "1", Long.toString(ttl)));
+  }
+
+  public boolean markRead(long dialogId, long readerId, long messageId) {
+    if (dialogSummaryRepository.markRead(dialogId, readerId, messageId) == 0) {
+      return false;
+    }
+    dialogSummaryRepository.findUnreadCount(dialogId, readerId)
+        .ifPresent(count -> set(readerId, dialogId, count));
+    return true;
+  }
+
+  public void set(long userId, long dialogId, int count) {
+    TransactionUtils.afterCommit(() ->
+        redisTemplate.execute(SET_SCRIPT, List.of(key(userId), versionKey(userId)),
+            Long.toString(dialogId), Integer.toString(count), Long.toString(ttl)));
+  }
+
+  @Scheduled(cron = "${scheduled-tasks.unread-counters-repair}")
+  public void repair() {
+    redisLockService.runExclusively(REPAIR_LOCK_KEY, REPAIR_LOCK_TTL, this::repairAll);
+  }
+
+  private void repairAll() {
+    int checked = 0;
+    int repaired = 0;
+    var options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(repairScanCount).build();
+    try (var cursor = redisTemplate.scan(options)) {
+      while (cursor.hasNext()) {
+        var key = cursor.next();
+        var cached = redisTemplate.<String, String>opsForHash().get(key, TOTAL_FIELD);
+        long actual = load(Long.parseLong(key.substring(KEY_PREFIX.length())));
+        checked++;
+        if (cached == null || Long.parseLong(cached) != actual) {
+          repaired++;
+        }
+      }
+    }
+    log.info(String.format("Unread counters reconciled for %d users, %d repaired", checked, repaired));
+  }
+
+  private long load(long userId) {
+    var version = redisTemplate.opsForValue().get(versionKey(userId));
+    return replace(userId, version, dialogSummaryRepository.findUnreadCountsByUser(userId));
+  }
+
+  long replace(long userId, String version, List<IdCount> counts) {
+    var args = new ArrayList<String>();
+    args.add(version == null ? "0" : version);
+    args.add(Long.toString(ttl));
+    long total = 0;
+    for (var row : counts) {
+      args.add(row.getId().toString());
+      args.add(row.getCount().toString());
+      total += row.getCount();
+    }
+    args.add(TOTAL_FIELD);
+    args.add(Long.toString(total));
+    redisTemplate.execute(REPLACE_SCRIPT, List.of(key(userId), versionKey(userId)), args.toArray());
+    return total;
+  }
+
+  private String key(long userId) {
+    return KEY_PREFIX + userId;
+  }
+
+  private String versionKey(long userId) {
+    return VERSION_KEY_PREFIX + userId;
+  }
+}
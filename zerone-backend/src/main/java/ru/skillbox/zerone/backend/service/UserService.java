@@ -54,6 +54,7 @@ public class UserService {
   private final SearchService searchService;
   private final StorageService storageService;
   private final FriendService friendService;
+  private final TypingService typingService;
   private final DadataClient client;
   @Value("${ip-check.url}")
   String urlString;
@@ -195,12 +196,22 @@ public class UserService {
         .setPhoto(editUser.getPhoto())
         .setAbout(editUser.getAbout());
     userRepository.save(user);
+    typingService.forgetUser(user.getId());
     return userMapper.userToUserDTO(user);
   }
 
   @SuppressWarnings("java:S107")
-  public CommonListResponseDTO<UserDTO> searchUsers(String name, String lastName, String country, String city, Integer ageFrom, Integer ageTo, int offset, int itemPerPage) {
+  public CommonListResponseDTO<UserDTO> searchUsers(String name, String lastName, String country, String city, Integer ageFrom, Integer ageTo, int offset, int itemPerPage, boolean exactTotal) {
     Pageable pageable = PageRequest.of(offset / itemPerPage, itemPerPage);
+    if (!exactTotal) {
+      var sliceUsers = searchService.searchUsersSlice(name, lastName, country, city, ageFrom, ageTo, pageable);
+      return CommonListResponseDTO.<UserDTO>builder()
+          .total(sliceUsers.hasNext() ? offset + itemPerPage + 1L : offset + sliceUsers.getNumberOfElements())
+          .offset(offset)
+          .perPage(itemPerPage)
+          .data(userMapper.usersToUserDTO(sliceUsers.getContent()))
+          .build();
+    }
     var pageUsers = searchService.searchUsers(name, lastName, country, city, ageFrom, ageTo, pageable);
 
     return CommonListResponseDTO.<UserDTO>builder()
@@ -0,0 +1,35 @@
+package ru.skillbox.zerone.backend.util;
+
+import lombok.experimental.UtilityClass;
+import ru.skillbox.zerone.backend.exception.CursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@UtilityClass
+public class CursorUtils {
+  private static final char SEPARATOR = '|';
+
+  public record Cursor(LocalDateTime time, long id) {
+  }
+
+  public String encode(LocalDateTime time, long id) {
+    String raw = time.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public Cursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new CursorException("Некорректный курсор");
+      }
+      return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new CursorException("Некорректный курсор");
+    }
+  }
+}
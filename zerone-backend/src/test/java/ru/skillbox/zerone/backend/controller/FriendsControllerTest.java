@@ -3,9 +3,14 @@ package ru.skillbox.zerone.backend.controller;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -30,4 +35,14 @@ class FriendsControllerTest extends AbstractIntegrationTest {
     mockMvc.perform(post(API_URL + "/3"))
         .andExpect(jsonPath("$.error").value(CANNOT_ADD_YOURSELF));
   }
+
+  @Test
+  @WithUserDetails("esperanza.padberg@yahoo.com")
+  void getMutualFriendsCounts_whenTooManyIds_thenBadRequest() throws Exception {
+    var ids = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).collect(Collectors.joining(","));
+    mockMvc.perform(post(API_URL + "/mutual/count")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"user_ids\": [" + ids + "]}"))
+        .andExpect(status().isBadRequest());
+  }
 }
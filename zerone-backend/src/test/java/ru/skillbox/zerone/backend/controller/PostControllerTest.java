@@ -1,5 +1,6 @@
 package ru.skillbox.zerone.backend.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 import org.slf4j.helpers.MessageFormatter;
@@ -82,11 +83,55 @@ class PostControllerTest extends AbstractIntegrationTest {
   @Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
       "classpath:mock-posts-insert.sql"})
   @WithUserDetails("testAccount@hotmail.com")
+  void testAuthorWall_whenCursorGiven_thenReturnNextPackOfMyPosts() throws Exception {
+    String firstPage = mockMvc.perform(get("/api/v1/users/1/wall").param("itemPerPage", "2"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.length()").value(2))
+        .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+        .andReturn().getResponse().getContentAsString();
+    String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+    mockMvc.perform(get("/api/v1/users/1/wall").param("itemPerPage", "2").param("cursor", cursor))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].id").value(2))
+        .andExpect(jsonPath("$.data[1].id").value(1))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql"})
+  @WithUserDetails("testAccount@hotmail.com")
+  void testAuthorWall_whenInvalidCursor_thenThrowsException() throws Exception {
+    mockMvc.perform(get("/api/v1/users/1/wall").param("cursor", "wrong"))
+        .andDo(print())
+        .andExpect(status().is4xxClientError())
+        .andExpect(jsonPath("$.error").value("Некорректный курсор"));
+  }
+
+  @Test
+  @Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+      "classpath:mock-posts-insert.sql", "classpath:mock-feed-insert.sql"})
+  @WithUserDetails("testAccount@hotmail.com")
   void testFeeds_whenValidInput_thenReturnPackOfNotMyPosts() throws Exception {
     mockMvc.perform(get("/api/v1/feeds"))
         .andDo(print())
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.total").value(1));
+        .andExpect(jsonPath("$.total").value(1))
+        .andExpect(jsonPath("$.data[0].id").value(4));
+  }
+
+  @Test
+  @Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+      "classpath:mock-posts-insert.sql"})
+  @WithUserDetails("testAccount@hotmail.com")
+  void testFeeds_whenNoSubscriptions_thenReturnEmptyFeed() throws Exception {
+    mockMvc.perform(get("/api/v1/feeds"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(0))
+        .andExpect(jsonPath("$.data").isEmpty());
   }
 
   @Test
@@ -0,0 +1,110 @@
+package ru.skillbox.zerone.backend.mapstruct;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.jdbc.Sql;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.model.dto.response.CommentDTO;
+import ru.skillbox.zerone.backend.model.dto.response.PostDTO;
+import ru.skillbox.zerone.backend.model.entity.Post;
+import ru.skillbox.zerone.backend.model.enumerated.LikeType;
+import ru.skillbox.zerone.backend.repository.PostRepository;
+import ru.skillbox.zerone.backend.service.LikeStoreService;
+import ru.skillbox.zerone.backend.util.CurrentUserUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+    "classpath:post-mapper-mock-data-insert.sql"})
+@WithUserDetails("testAccount@hotmail.com")
+class PostMapperDecoratorTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private PostMapper postMapper;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  @Autowired
+  private LikeStoreService likeStoreService;
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  @BeforeEach
+  void clearLikes() {
+    var keys = redisTemplate.keys("likes:*");
+    if (keys != null && !keys.isEmpty()) {
+      redisTemplate.delete(keys);
+    }
+  }
+
+  @Test
+  void testToDtoList_whenPageGrows_thenQueryCountStaysConstant() {
+    postMapper.toDtoList(loadPosts(6));
+
+    long smallPageQueries = countQueries(loadPosts(2));
+    long largePageQueries = countQueries(loadPosts(6));
+
+    assertEquals(smallPageQueries, largePageQueries);
+  }
+
+  @Test
+  void testToDtoList_whenValidInput_thenFillsLikesTagsAndComments() {
+    List<PostDTO> posts = postMapper.toDtoList(loadPosts(6));
+
+    assertEquals(6, posts.size());
+
+    PostDTO first = posts.get(0);
+    assertEquals(2, first.getLikes());
+    assertTrue(first.isMyLike());
+    assertEquals(List.of("Mapper tag 1", "Mapper tag 2"), first.getTags());
+    assertEquals(1, first.getComments().getTotal());
+    CommentDTO comment = first.getComments().getData().get(0);
+    assertEquals(1, comment.getLikes());
+    assertTrue(comment.isMyLike());
+    assertEquals(1, comment.getSubComments().size());
+
+    PostDTO third = posts.get(2);
+    assertFalse(third.isMyLike());
+    CommentDTO reply = third.getComments().getData().get(0).getSubComments().get(0);
+    assertEquals(1, reply.getLikes());
+    assertEquals(1, reply.getSubComments().size());
+
+    assertEquals(0, posts.get(4).getLikes());
+  }
+
+  @Test
+  void testToDtoList_whenLikeNotFlushedYet_thenCountedFromLikeStore() {
+    var post = loadPosts(6).get(4);
+    likeStoreService.load(LikeType.POST, post.getId());
+    likeStoreService.add(LikeType.POST, post.getId(), CurrentUserUtils.getCurrentUser().getId());
+
+    PostDTO dto = postMapper.toDtoList(List.of(post)).get(0);
+
+    assertEquals(1, dto.getLikes());
+    assertTrue(dto.isMyLike());
+  }
+
+  private List<Post> loadPosts(int size) {
+    return postRepository.findAll(PageRequest.of(0, size, Sort.by("id"))).getContent();
+  }
+
+  private long countQueries(List<Post> posts) {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    postMapper.toDtoList(posts);
+    return statistics.getPrepareStatementCount();
+  }
+}
@@ -0,0 +1,37 @@
+package ru.skillbox.zerone.backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+    "classpath:mock-posts-insert.sql"})
+class RecommendationRepositoryTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private RecommendationRepository recommendationRepository;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void testFindStaleUserIds_whenFriendshipDeletedAfterRefresh_thenUsersAreStale() {
+    jdbcTemplate.update("""
+        INSERT INTO friendship (time, src_person_id, dst_person_id, status, version)
+        VALUES (now(), 1, 2, 'FRIEND', 0), (now(), 2, 1, 'FRIEND', 0)
+        """);
+    jdbcTemplate.update("""
+        INSERT INTO recommendation (id, recommended_friends, updated_at)
+        VALUES (1, '{}', clock_timestamp()), (2, '{}', clock_timestamp())
+        """);
+
+    assertThat(recommendationRepository.findStaleUserIds(0, 10)).doesNotContain(1L, 2L);
+
+    jdbcTemplate.update("DELETE FROM friendship WHERE src_person_id IN (1, 2)");
+
+    assertThat(recommendationRepository.findStaleUserIds(0, 10)).contains(1L, 2L);
+  }
+}
@@ -0,0 +1,67 @@
+package ru.skillbox.zerone.backend.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.configuration.RedisMessagingConfig;
+
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ClusterBroadcastTest extends AbstractIntegrationTest {
+  private static final long TIMEOUT = 5000;
+
+  private static ConfigurableApplicationContext secondNode;
+
+  @Autowired
+  private ClusterBroadcast firstBroadcast;
+
+  @BeforeAll
+  static void startSecondNode() {
+    secondNode = new SpringApplicationBuilder(SecondNode.class)
+        .web(WebApplicationType.NONE)
+        .run();
+  }
+
+  @AfterAll
+  static void stopSecondNode() {
+    secondNode.close();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testPublish_whenSubscribedOnBothNodes_thenOnlyOtherNodeReceives() {
+    // Given
+    Consumer<Long> local = mock(Consumer.class);
+    Consumer<Long> remote = mock(Consumer.class);
+    firstBroadcast.subscribe("test-topic", Long.class, local);
+    secondNode.getBean(ClusterBroadcast.class).subscribe("test-topic", Long.class, remote);
+
+    // When
+    firstBroadcast.publish("test-topic", 42L);
+
+    // Then
+    verify(remote, timeout(TIMEOUT)).accept(42L);
+    verify(local, after(200).never()).accept(42L);
+  }
+
+  @Configuration
+  @ImportAutoConfiguration(RedisAutoConfiguration.class)
+  @Import({RedisMessagingConfig.class, ClusterBroadcast.class})
+  static class SecondNode {
+  }
+}
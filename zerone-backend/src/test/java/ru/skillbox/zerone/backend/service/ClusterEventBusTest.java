@@ -0,0 +1,154 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.configuration.RedisMessagingConfig;
+import ru.skillbox.zerone.backend.model.dto.socket.response.ReadMessagesResponseDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ClusterEventBusTest extends AbstractIntegrationTest {
+  private static final long TIMEOUT = 5000;
+
+  private static ConfigurableApplicationContext secondNode;
+
+  @Autowired
+  private ClusterEventBus firstBus;
+  @Autowired
+  private SocketSessionRegistry firstRegistry;
+
+  private final List<Registration> registrations = new ArrayList<>();
+
+  @BeforeAll
+  static void startSecondNode() {
+    secondNode = new SpringApplicationBuilder(SecondNode.class)
+        .web(WebApplicationType.NONE)
+        .run();
+  }
+
+  @AfterAll
+  static void stopSecondNode() {
+    secondNode.close();
+  }
+
+  @AfterEach
+  void tearDown() {
+    registrations.forEach(registration -> {
+      registration.registry().unregister(registration.client());
+      registration.bus().left(registration.userId());
+    });
+  }
+
+  @Test
+  void testPublish_whenUserConnectedToAnotherNode_thenEventDeliveredThere() {
+    // Given
+    var client = connect(secondNode.getBean(ClusterEventBus.class), secondNode.getBean(SocketSessionRegistry.class), 101);
+    var payload = ReadMessagesResponseDTO.builder().dialogId(7).readerId(1).lastReadMessageId(10).build();
+
+    // When
+    firstBus.publish(101, "read-response", payload);
+
+    // Then
+    var captor = ArgumentCaptor.forClass(Object.class);
+    verify(client, timeout(TIMEOUT)).sendEvent(eq("read-response"), captor.capture());
+    var json = (JsonNode) captor.getValue();
+    assertThat(json.get("dialog").asLong()).isEqualTo(7);
+    assertThat(json.get("reader_id").asLong()).isEqualTo(1);
+    assertThat(json.get("last_read_message_id").asLong()).isEqualTo(10);
+  }
+
+  @Test
+  void testPublish_whenUserConnectedToBothNodes_thenEachSessionGetsEventOnce() {
+    // Given
+    var local = connect(firstBus, firstRegistry, 102);
+    var remote = connect(secondNode.getBean(ClusterEventBus.class), secondNode.getBean(SocketSessionRegistry.class), 102);
+
+    // When
+    secondNode.getBean(ClusterEventBus.class).publish(102, "message", "hello");
+
+    // Then
+    verify(remote, timeout(TIMEOUT)).sendEvent("message", "hello");
+    verify(local, timeout(TIMEOUT)).sendEvent(eq("message"), any(JsonNode.class));
+    verify(remote, after(200).times(1)).sendEvent(eq("message"), any());
+  }
+
+  @Test
+  void testPublish_whenManyEvents_thenBatchedAndAllDelivered() {
+    // Given
+    var client = connect(secondNode.getBean(ClusterEventBus.class), secondNode.getBean(SocketSessionRegistry.class), 103);
+    var receivedBefore = secondNode.getBean(MeterRegistry.class).counter("socket.cluster.received").count();
+
+    // When
+    for (int i = 0; i < 50; i++) {
+      firstBus.publish(103, "friend-notification-response", i);
+    }
+
+    // Then
+    verify(client, timeout(TIMEOUT).times(50)).sendEvent(eq("friend-notification-response"), any());
+    assertThat(secondNode.getBean(MeterRegistry.class).counter("socket.cluster.received").count() - receivedBefore)
+        .isEqualTo(50);
+  }
+
+  @Test
+  void testPublish_whenUserIsNotConnectedAnywhere_thenNothingIsSent() {
+    // Given
+    var client = connect(secondNode.getBean(ClusterEventBus.class), secondNode.getBean(SocketSessionRegistry.class), 104);
+
+    // When
+    firstBus.publish(105, "message", "hello");
+
+    // Then
+    verify(client, after(200).never()).sendEvent(any(), any());
+  }
+
+  private SocketIOClient connect(ClusterEventBus bus, SocketSessionRegistry registry, long userId) {
+    var client = mock(SocketIOClient.class);
+    given(client.getSessionId()).willReturn(UUID.randomUUID());
+    if (registry.register(userId, client)) {
+      bus.joined(userId);
+    }
+    registrations.add(new Registration(bus, registry, client, userId));
+    return client;
+  }
+
+  private record Registration(ClusterEventBus bus, SocketSessionRegistry registry, SocketIOClient client, long userId) {
+  }
+
+  @Configuration
+  @ImportAutoConfiguration(RedisAutoConfiguration.class)
+  @Import({RedisMessagingConfig.class, SocketSessionRegistry.class, ClusterEventBus.class})
+  static class SecondNode {
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
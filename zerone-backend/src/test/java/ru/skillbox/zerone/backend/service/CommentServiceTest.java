@@ -0,0 +1,123 @@
+package ru.skillbox.zerone.backend.service;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.jdbc.Sql;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.exception.CommentException;
+import ru.skillbox.zerone.backend.exception.CommentNotFoundException;
+import ru.skillbox.zerone.backend.model.dto.request.CommentRequestDTO;
+import ru.skillbox.zerone.backend.repository.PostRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+    "classpath:mock-posts-insert.sql"})
+@WithUserDetails("testAccount@hotmail.com")
+class CommentServiceTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private CommentService commentService;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void testCommentCounters_whenAddDeleteAndRecover_thenCountersMatchLists() {
+    var comment = commentService.addComment(1, CommentRequestDTO.builder().commentText("Комментарий").build()).getData();
+    var reply = commentService.addComment(1, CommentRequestDTO.builder()
+        .commentText("Ответ").parentId(comment.getId()).build()).getData();
+
+    assertEquals(1, postRepository.findCommentCountById(1L).orElseThrow());
+    assertEquals(1, replyCount(comment.getId()));
+
+    commentService.deleteComment(reply.getId());
+    commentService.deleteComment(comment.getId());
+    assertEquals(1, replyCount(comment.getId()));
+    assertEquals(1, postRepository.findCommentCountById(1L).orElseThrow());
+
+    var comments = commentService.getComments(0, 5, 1);
+    assertEquals(comments.getData().size(), comments.getTotal());
+    assertTrue(comments.getData().get(0).isDeleted());
+    assertEquals(1, comments.getData().get(0).getSubComments().size());
+
+    commentService.recoveryComment(comment.getId());
+    assertEquals(1, postRepository.findCommentCountById(1L).orElseThrow());
+  }
+
+  @Test
+  void testReconcileCounters_whenCountersDrift_thenRepairThem() {
+    var comment = commentService.addComment(1, CommentRequestDTO.builder().commentText("Комментарий").build()).getData();
+    jdbcTemplate.update("UPDATE post SET comment_count = 42 WHERE id = 1");
+    jdbcTemplate.update("UPDATE comment SET reply_count = 7 WHERE id = ?", comment.getId());
+
+    commentService.reconcileCounters();
+
+    assertEquals(1, postRepository.findCommentCountById(1L).orElseThrow());
+    assertEquals(0, replyCount(comment.getId()));
+  }
+
+  @Test
+  void testGetComments_whenThreadIsDeep_thenTreeIsBoundedAndRepliesArePaged() {
+    var root = commentService.addComment(1, CommentRequestDTO.builder().commentText("Комментарий").build()).getData();
+    long parentId = root.getId();
+    List<Long> chain = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      parentId = commentService.addComment(1, CommentRequestDTO.builder()
+          .commentText("Ответ " + i).parentId(parentId).build()).getData().getId();
+      chain.add(parentId);
+    }
+
+    var comments = commentService.getComments(0, 5, 1);
+
+    assertEquals(1, comments.getTotal());
+    var level = comments.getData().get(0);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(1, level.getSubComments().size());
+      level = level.getSubComments().get(0);
+      assertEquals(chain.get(i), level.getId());
+    }
+    assertTrue(level.getSubComments().isEmpty());
+    assertEquals(1, level.getReplyCount());
+
+    var replies = commentService.getReplies(1, level.getId(), 0, 5);
+
+    assertEquals(1, replies.getTotal());
+    assertEquals(chain.get(3), replies.getData().get(0).getId());
+    assertEquals(chain.get(4), replies.getData().get(0).getSubComments().get(0).getId());
+  }
+
+  @Test
+  void testGetReplies_whenCommentBelongsToAnotherPost_thenThrowException() {
+    var comment = commentService.addComment(1, CommentRequestDTO.builder().commentText("Комментарий").build()).getData();
+
+    assertThrows(CommentNotFoundException.class, () -> commentService.getReplies(2, comment.getId(), 0, 5));
+  }
+
+  @Test
+  void testAddComment_whenParentBelongsToAnotherPost_thenThrowException() {
+    var comment = commentService.addComment(1, CommentRequestDTO.builder().commentText("Комментарий").build()).getData();
+    var reply = CommentRequestDTO.builder()
+        .commentText("Ответ")
+        .parentId(comment.getId())
+        .build();
+
+    assertThrows(CommentException.class, () -> commentService.addComment(2, reply));
+    assertEquals(0, replyCount(comment.getId()));
+  }
+
+  private int replyCount(long commentId) {
+    Integer count = jdbcTemplate.queryForObject("SELECT reply_count FROM comment WHERE id = ?", Integer.class, commentId);
+    return count == null ? 0 : count;
+  }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -15,11 +17,14 @@ import ru.skillbox.zerone.backend.mapstruct.MessageMapper;
 import ru.skillbox.zerone.backend.model.dto.request.DialogRequestDTO;
 import ru.skillbox.zerone.backend.model.dto.request.MessageRequestDTO;
 import ru.skillbox.zerone.backend.model.dto.response.CommonResponseDTO;
+import ru.skillbox.zerone.backend.model.dto.response.DialogDataDTO;
 import ru.skillbox.zerone.backend.model.dto.response.MessageDataDTO;
 import ru.skillbox.zerone.backend.model.entity.Dialog;
+import ru.skillbox.zerone.backend.model.entity.DialogSummary;
 import ru.skillbox.zerone.backend.model.entity.Message;
 import ru.skillbox.zerone.backend.model.entity.User;
 import ru.skillbox.zerone.backend.repository.DialogRepository;
+import ru.skillbox.zerone.backend.repository.DialogSummaryRepository;
 import ru.skillbox.zerone.backend.repository.FriendshipRepository;
 import ru.skillbox.zerone.backend.repository.MessageRepository;
 import ru.skillbox.zerone.backend.repository.UserRepository;
@@ -27,12 +32,18 @@ import ru.skillbox.zerone.backend.util.CurrentUserUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +51,8 @@ class DialogServiceUnitTest {
   @Mock
   private DialogRepository dialogRepository;
   @Mock
+  private DialogSummaryRepository dialogSummaryRepository;
+  @Mock
   private MessageRepository messageRepository;
   @Mock
   private UserRepository userRepository;
@@ -48,11 +61,15 @@ class DialogServiceUnitTest {
   @Mock
   private DialogMapper dialogMapper;
   @Mock
-  private SocketIOService socketIOService;
-  @Mock
   private FriendshipRepository friendshipRepository;
   @Mock
   private NotificationService notificationService;
+  @Mock
+  private MessageDeliveryPipeline messageDeliveryPipeline;
+  @Mock
+  private UnreadCounterService unreadCounterService;
+  @Mock
+  private TypingService typingService;
   @InjectMocks
   private DialogService dialogService;
 
@@ -101,7 +118,10 @@ class DialogServiceUnitTest {
     assertEquals("test message",response.getData().getMessageText());
     assertEquals("SEND",response.getData().getReadStatus());
     verify(messageRepository).save(message);
+    verify(dialogSummaryRepository).registerMessage(dialog.getId(), message.getId(), currentTestUser.getId(),
+        "test message", message.getSentTime(), true);
     verify(notificationService).saveMessage(message);
+    verify(messageDeliveryPipeline).submit(message);
   }
 
   @Test
@@ -121,4 +141,160 @@ class DialogServiceUnitTest {
 
     assertThrows(DialogException.class, () -> dialogService.postDialogs(dialogRequestDTO));
   }
+
+  @Test
+  void testGetDialogs_whenSummariesExist_thenSingleQueryAndTotalElements() {
+    var companionUser = new User().setId(2L);
+    var summary = DialogSummary.builder()
+        .dialogId(1L)
+        .sender(currentTestUser)
+        .recipient(companionUser)
+        .lastMessageId(5L)
+        .lastMessageAuthorId(2L)
+        .lastMessagePreview("test message")
+        .lastMessageTime(MessageDate)
+        .senderUnreadCount(3)
+        .recipientUnreadCount(0)
+        .build();
+    var pageRequest = PageRequest.of(0, 10);
+    when(dialogSummaryRepository.findPageByUser(currentTestUser, pageRequest))
+        .thenReturn(new PageImpl<>(List.of(summary), pageRequest, 11));
+    var dialogDataDTO = DialogDataDTO.builder().id(1L).unreadCount(3).build();
+    when(dialogMapper.dialogSummaryToDialogDataDTO(summary, 3, companionUser)).thenReturn(dialogDataDTO);
+
+    var response = dialogService.getDialogs(0, 10);
+
+    assertEquals(11, response.getTotal());
+    assertEquals(List.of(dialogDataDTO), response.getData());
+    verifyNoInteractions(messageRepository);
+  }
+
+  @Test
+  void testGetMessages_whenPageRead_thenWatermarkAdvancedWithoutRewritingMessages() {
+    var companionUser = dialog.getRecipient();
+    dialog.setSender(currentTestUser);
+    var own = new Message().setId(7L).setAuthor(currentTestUser).setDialog(dialog);
+    var incoming = new Message().setId(9L).setAuthor(companionUser).setDialog(dialog);
+    var summary = DialogSummary.builder()
+        .dialogId(dialog.getId())
+        .sender(currentTestUser)
+        .recipient(companionUser)
+        .recipientLastReadMessageId(6L)
+        .build();
+    when(dialogRepository.findById(dialog.getId())).thenReturn(Optional.of(dialog));
+    when(messageRepository.findByDialog(any(Dialog.class), any()))
+        .thenReturn(new PageImpl<>(List.of(incoming, own)));
+    when(dialogSummaryRepository.findByDialogId(dialog.getId())).thenReturn(Optional.of(summary));
+    var incomingDTO = MessageDataDTO.builder().id(9L).sendByMe(false).readStatus("SENT").build();
+    var ownDTO = MessageDataDTO.builder().id(7L).sendByMe(true).readStatus("READ").build();
+    when(messageMapper.messagesListToMessageDataDTOs(List.of(incoming, own))).thenReturn(List.of(incomingDTO, ownDTO));
+
+    var response = dialogService.getMessages(dialog.getId(), 0, 10);
+
+    verify(unreadCounterService).markRead(dialog.getId(), currentTestUser.getId(), 9L);
+    verify(messageRepository, never()).saveAll(any());
+    assertEquals("READ", response.getData().get(0).getReadStatus());
+    assertEquals("SENT", response.getData().get(1).getReadStatus());
+  }
+
+  @Test
+  void testGetMessages_whenAroundAnchor_thenWindowReturnedWithoutCount() {
+    var messages = LongStream.rangeClosed(3, 7).boxed()
+        .collect(Collectors.toMap(id -> id, id -> new Message().setId(id).setDialog(dialog)));
+    when(dialogRepository.findById(dialog.getId())).thenReturn(Optional.of(dialog));
+    when(messageRepository.findByDialogAndIdGreaterThanEqualOrderByIdAsc(dialog, 5L, PageRequest.of(0, 3)))
+        .thenReturn(List.of(messages.get(5L), messages.get(6L), messages.get(7L)));
+    when(messageRepository.findByDialogAndIdLessThanOrderByIdDesc(dialog, 5L, PageRequest.of(0, 3)))
+        .thenReturn(List.of(messages.get(4L), messages.get(3L)));
+    var window = List.of(messages.get(6L), messages.get(5L), messages.get(4L), messages.get(3L));
+    var dtos = window.stream()
+        .map(m -> MessageDataDTO.builder().id(m.getId()).sendByMe(false).build())
+        .toList();
+    when(messageMapper.messagesListToMessageDataDTOs(window)).thenReturn(dtos);
+
+    var response = dialogService.getMessages(dialog.getId(), 0, 4, null, null, 5L);
+
+    assertEquals(List.of(6L, 5L, 4L, 3L), response.getData().stream().map(MessageDataDTO::getId).toList());
+    assertEquals("6", response.getPrevCursor());
+    assertNull(response.getNextCursor());
+    assertNull(response.getTotal());
+    verify(unreadCounterService).markRead(dialog.getId(), currentTestUser.getId(), 6L);
+    verify(messageRepository, never()).findByDialog(any(), any());
+  }
+
+  @Test
+  void testGetMessages_whenBeforeAnchorPastNewest_thenNoPrevCursor() {
+    var messages = LongStream.rangeClosed(1, 2).boxed()
+        .map(id -> new Message().setId(id).setDialog(dialog))
+        .toList();
+    var window = List.of(messages.get(1), messages.get(0));
+    when(dialogRepository.findById(dialog.getId())).thenReturn(Optional.of(dialog));
+    when(messageRepository.findByDialogAndIdLessThanOrderByIdDesc(dialog, 10L, PageRequest.of(0, 3)))
+        .thenReturn(window);
+    when(messageRepository.existsByDialogAndIdGreaterThanEqual(dialog, 10L)).thenReturn(false);
+    var dtos = window.stream()
+        .map(m -> MessageDataDTO.builder().id(m.getId()).sendByMe(false).build())
+        .toList();
+    when(messageMapper.messagesListToMessageDataDTOs(window)).thenReturn(dtos);
+
+    var response = dialogService.getMessages(dialog.getId(), 0, 2, 10L, null, null);
+
+    assertEquals(List.of(2L, 1L), response.getData().stream().map(MessageDataDTO::getId).toList());
+    assertNull(response.getPrevCursor());
+    assertNull(response.getNextCursor());
+  }
+
+  @Test
+  void testGetMessages_whenAfterAnchor_thenNextCursorOnlyIfOlderMessagesExist() {
+    var messages = LongStream.rangeClosed(6, 7).boxed()
+        .map(id -> new Message().setId(id).setDialog(dialog))
+        .toList();
+    var window = List.of(messages.get(1), messages.get(0));
+    when(dialogRepository.findById(dialog.getId())).thenReturn(Optional.of(dialog));
+    when(messageRepository.findByDialogAndIdGreaterThanOrderByIdAsc(dialog, 5L, PageRequest.of(0, 3)))
+        .thenReturn(messages);
+    when(messageRepository.existsByDialogAndIdLessThanEqual(dialog, 5L)).thenReturn(true);
+    var dtos = window.stream()
+        .map(m -> MessageDataDTO.builder().id(m.getId()).sendByMe(false).build())
+        .toList();
+    when(messageMapper.messagesListToMessageDataDTOs(window)).thenReturn(dtos);
+
+    var response = dialogService.getMessages(dialog.getId(), 0, 2, null, 5L, null);
+
+    assertEquals(List.of(7L, 6L), response.getData().stream().map(MessageDataDTO::getId).toList());
+    assertEquals("6", response.getNextCursor());
+    assertNull(response.getPrevCursor());
+  }
+
+  @Test
+  void testGetMessages_whenSeveralAnchors_thenThrowException() {
+    assertThrows(DialogException.class, () -> dialogService.getMessages(dialog.getId(), 0, 10, 5L, 3L, null));
+    verifyNoInteractions(messageRepository);
+  }
+
+  @Test
+  void testPostDialogs_whenDialogAlreadyExists_thenExistingDialogReturnedWithoutFirstMessage() {
+    var companionUser = new User().setId(2L);
+    var dialogRequestDTO = new DialogRequestDTO();
+    dialogRequestDTO.setUsersIds(List.of(2L));
+    var summary = DialogSummary.builder()
+        .dialogId(dialog.getId())
+        .sender(companionUser)
+        .recipient(currentTestUser)
+        .senderUnreadCount(0)
+        .recipientUnreadCount(4)
+        .build();
+    var dialogDataDTO = DialogDataDTO.builder().id(dialog.getId()).unreadCount(4).build();
+    when(userRepository.findById(2L)).thenReturn(Optional.of(companionUser));
+    when(friendshipRepository.findBySrcPersonAndDstPerson(companionUser, currentTestUser)).thenReturn(Optional.empty());
+    when(dialogRepository.insertIfAbsent(1L, 2L)).thenReturn(0);
+    when(dialogRepository.findByPairKey(1L, 2L)).thenReturn(Optional.of(dialog));
+    when(dialogSummaryRepository.findByDialogId(dialog.getId())).thenReturn(Optional.of(summary));
+    when(dialogMapper.dialogSummaryToDialogDataDTO(summary, 4, companionUser)).thenReturn(dialogDataDTO);
+
+    var response = dialogService.postDialogs(dialogRequestDTO);
+
+    assertEquals(dialogDataDTO, response.getData());
+    verify(messageRepository, never()).save(any());
+  }
 }
@@ -0,0 +1,188 @@
+package ru.skillbox.zerone.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.skillbox.zerone.backend.model.entity.Friendship;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus;
+import ru.skillbox.zerone.backend.model.projection.FriendshipEdge;
+import ru.skillbox.zerone.backend.repository.FriendshipRepository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendGraphTest {
+  @Mock
+  private FriendshipRepository friendshipRepository;
+  @Mock
+  private ClusterBroadcast clusterBroadcast;
+  @Captor
+  private ArgumentCaptor<Consumer<FriendGraph.GraphChange>> handlerCaptor;
+
+  @InjectMocks
+  private FriendGraph underTest;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(underTest, "loadChunkSize", 2);
+  }
+
+  @Test
+  void testLoad_whenEdgesSpanSeveralChunks_thenAdjacencyIsSortedPerStatus() {
+    // Given
+    given(friendshipRepository.findEdgesAfter(0L, 0L, 0L, 2))
+        .willReturn(List.of(edge(1, 1, 3, FRIEND), edge(2, 1, 5, BLOCKED)));
+    given(friendshipRepository.findEdgesAfter(1L, 5L, 2L, 2))
+        .willReturn(List.of(edge(3, 1, 7, FRIEND), edge(4, 3, 1, FRIEND)));
+    given(friendshipRepository.findEdgesAfter(3L, 1L, 4L, 2))
+        .willReturn(List.of(edge(5, 5, 1, WASBLOCKEDBY)));
+
+    // When
+    underTest.load();
+
+    // Then
+    assertThat(underTest.friendsOf(1)).containsExactly(3, 7);
+    assertThat(underTest.friendsOf(3)).containsExactly(1);
+    assertThat(underTest.status(1, 5)).isEqualTo(BLOCKED);
+    assertThat(underTest.status(5, 1)).isEqualTo(WASBLOCKEDBY);
+    assertThat(underTest.status(1, 9)).isNull();
+    assertThat(underTest.friendsOf(42)).isEmpty();
+  }
+
+  @Test
+  void testApply_whenStatusChanges_thenEdgeMovesBetweenStatuses() {
+    // Given
+    given(friendshipRepository.findEdgesAfter(anyLong(), anyLong(), anyLong(), anyInt())).willReturn(List.of());
+    underTest.load();
+    User user = User.builder().id(1L).build();
+    User friend = User.builder().id(2L).build();
+
+    // When
+    underTest.apply(List.of(friendship(user, friend, SUBSCRIBED), friendship(friend, user, REQUEST)));
+    underTest.apply(List.of(friendship(user, friend, FRIEND), friendship(friend, user, FRIEND)));
+
+    // Then
+    assertThat(underTest.status(1, 2)).isEqualTo(FRIEND);
+    assertThat(underTest.adjacent(1, SUBSCRIBED)).isEmpty();
+    assertThat(underTest.adjacent(2, REQUEST)).isEmpty();
+    assertThat(underTest.friendsOf(2)).containsExactly(1);
+
+    // When
+    underTest.remove(List.of(friendship(user, friend, FRIEND), friendship(friend, user, FRIEND)));
+
+    // Then
+    assertThat(underTest.status(1, 2)).isNull();
+    assertThat(underTest.hasStatus(2, 1, FRIEND)).isFalse();
+  }
+
+  @Test
+  void testApply_whenManyUsers_thenAllAdjacencyListsAreReachable() {
+    // Given
+    given(friendshipRepository.findEdgesAfter(anyLong(), anyLong(), anyLong(), anyInt())).willReturn(List.of());
+    underTest.load();
+    User user = User.builder().id(1L).build();
+
+    // When
+    for (long id = 2; id < 1000; id++) {
+      underTest.apply(List.of(friendship(User.builder().id(id).build(), user, FRIEND)));
+    }
+
+    // Then
+    for (long id = 2; id < 1000; id++) {
+      assertThat(underTest.friendsOf(id)).containsExactly(1);
+    }
+  }
+
+  @Test
+  void testApply_whenCommitted_thenChangeBroadcastToCluster() {
+    // Given
+    User user = User.builder().id(1L).build();
+    User other = User.builder().id(2L).build();
+
+    // When
+    underTest.apply(List.of(friendship(user, other, BLOCKED)));
+
+    // Then
+    then(clusterBroadcast).should().publish("friend-graph",
+        new FriendGraph.GraphChange(List.of(new FriendGraph.Edge(1, 2, BLOCKED))));
+  }
+
+  @Test
+  void testStart_whenChangeReceivedFromAnotherNode_thenApplied() {
+    // Given
+    given(friendshipRepository.findEdgesAfter(anyLong(), anyLong(), anyLong(), anyInt())).willReturn(List.of());
+    underTest.start();
+    then(clusterBroadcast).should().subscribe(eq("friend-graph"), eq(FriendGraph.GraphChange.class), handlerCaptor.capture());
+
+    // When
+    handlerCaptor.getValue().accept(new FriendGraph.GraphChange(List.of(new FriendGraph.Edge(1, 2, BLOCKED))));
+
+    // Then
+    assertThat(underTest.hasStatus(1, 2, BLOCKED)).isTrue();
+
+    // When
+    handlerCaptor.getValue().accept(new FriendGraph.GraphChange(List.of(new FriendGraph.Edge(1, 2, null))));
+
+    // Then
+    assertThat(underTest.status(1, 2)).isNull();
+  }
+
+  @Test
+  void testLoad_whenChangeArrivesDuringLoad_thenChangeKept() {
+    // Given
+    given(friendshipRepository.findEdgesAfter(0L, 0L, 0L, 2)).willAnswer(invocation -> {
+      underTest.apply(List.of(friendship(User.builder().id(1L).build(), User.builder().id(9L).build(), FRIEND)));
+      return List.of(edge(1, 1, 3, FRIEND));
+    });
+
+    // When
+    underTest.load();
+
+    // Then
+    assertThat(underTest.friendsOf(1)).containsExactly(3, 9);
+  }
+
+  private Friendship friendship(User src, User dst, FriendshipStatus status) {
+    return Friendship.builder().srcPerson(src).dstPerson(dst).status(status).build();
+  }
+
+  private FriendshipEdge edge(long id, long srcId, long dstId, FriendshipStatus status) {
+    return new FriendshipEdge() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public Long getSrcId() {
+        return srcId;
+      }
+
+      @Override
+      public Long getDstId() {
+        return dstId;
+      }
+
+      @Override
+      public String getStatus() {
+        return status.name();
+      }
+    };
+  }
+}
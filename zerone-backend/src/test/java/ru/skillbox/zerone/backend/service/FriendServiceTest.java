@@ -49,6 +49,14 @@ class FriendServiceTest {
   private UserMapper userMapper;
   @Mock
   private NotificationService notificationService;
+  @Mock
+  private FeedService feedService;
+  @Mock
+  private FriendGraph friendGraph;
+  @Mock
+  private RecommendationService recommendationService;
+  @Mock
+  private RecommendationRefreshQueue recommendationRefreshQueue;
 
   @InjectMocks
   private FriendService underTest;
@@ -77,8 +85,8 @@ class FriendServiceTest {
 
     given(userRepository.findById(friendId)).willReturn(Optional.of(friend));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend)).willReturn(Optional.empty());
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user)).willReturn(Optional.empty());
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of());
 
     // When
     var responseDTO = underTest.addFriend(friendId);
@@ -190,8 +198,8 @@ class FriendServiceTest {
         .srcPerson(user)
         .dstPerson(friend)
         .build();
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend)).willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user)).willReturn(Optional.empty());
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of(friendship));
 
     // When, Then
     assertThatThrownBy(() -> underTest.addFriend(friendId))
@@ -218,8 +226,8 @@ class FriendServiceTest {
         .srcPerson(user)
         .dstPerson(friend)
         .build();
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend)).willReturn(Optional.empty());
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user)).willReturn(Optional.of(friendship));
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of(friendship));
 
     // When, Then
     assertThatThrownBy(() -> underTest.addFriend(friendId))
@@ -246,10 +254,8 @@ class FriendServiceTest {
     Friendship friendshipReversed = Friendship.builder()
         .id(18L).status(SUBSCRIBED).srcPerson(friend)
         .dstPerson(user).build();
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When
     CommonResponseDTO<MessageResponseDTO> responseDTO = underTest.addFriend(friendId);
@@ -287,14 +293,12 @@ class FriendServiceTest {
         .build();
     Friendship friendshipReversed = Friendship.builder()
         .id(18L).status(FriendshipStatus.FRIEND)
-        .dstPerson(friend).srcPerson(user)
+        .srcPerson(friend).dstPerson(user)
         .build();
     given(userRepository.findById(friendId)).willReturn(Optional.of(friend));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When
     var responseDTO = underTest.removeFriend(friendId);
@@ -308,8 +312,8 @@ class FriendServiceTest {
     assertThat(capture.get(0).getSrcPerson().getId()).isEqualTo(userId);
     assertThat(capture.get(0).getDstPerson().getId()).isEqualTo(friendId);
     assertThat(capture.get(1).getStatus()).isEqualTo(FriendshipStatus.SUBSCRIBED);
-    assertThat(capture.get(1).getSrcPerson().getId()).isEqualTo(userId);
-    assertThat(capture.get(1).getDstPerson().getId()).isEqualTo(friendId);
+    assertThat(capture.get(1).getSrcPerson().getId()).isEqualTo(friendId);
+    assertThat(capture.get(1).getDstPerson().getId()).isEqualTo(userId);
 
     assertThat(responseDTO.getData().getMessage()).isEqualTo(OK);
   }
@@ -327,10 +331,8 @@ class FriendServiceTest {
         .build();
     given(userRepository.findById(friendId)).willReturn(Optional.of(friend));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend))
-        .willReturn(Optional.empty());
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user))
-        .willReturn(Optional.of(friendship));
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of(friendship));
 
     // When, Then
     assertThatThrownBy(() -> underTest.removeFriend(friendId))
@@ -351,10 +353,8 @@ class FriendServiceTest {
         .build();
     given(userRepository.findById(friendId)).willReturn(Optional.of(friend));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user))
-        .willReturn(Optional.empty());
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of(friendship));
 
     // When, Then
     assertThatThrownBy(() -> underTest.removeFriend(friendId))
@@ -391,14 +391,12 @@ class FriendServiceTest {
         .build();
     Friendship friendshipReversed = Friendship.builder()
         .id(18L).status(FriendshipStatus.DECLINED)
-        .dstPerson(friend).srcPerson(user)
+        .srcPerson(friend).dstPerson(user)
         .build();
     given(userRepository.findById(friendId)).willReturn(Optional.of(friend));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, friend))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(friend, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), friend.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When, Then
     assertThatThrownBy(() -> underTest.removeFriend(friendId))
@@ -444,10 +442,8 @@ class FriendServiceTest {
     given(userRepository.findById(targetId)).willReturn(Optional.of(target));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
 
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When
     var responseDTO = underTest.blockUser(targetId);
@@ -502,10 +498,8 @@ class FriendServiceTest {
 
     given(userRepository.findById(targetId)).willReturn(Optional.of(target));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.empty());
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship));
 
     // When, Then
     assertThatThrownBy(() -> underTest.blockUser(targetId))
@@ -513,10 +507,8 @@ class FriendServiceTest {
         .hasMessageContaining(NO_PAIR_FOUND_FOR_RECORD_WITH_ID_PATTERN.substring(0, 15));
 
     // Given
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.empty());
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendshipReversed));
 
     // When, Then
     assertThatThrownBy(() -> underTest.blockUser(targetId))
@@ -558,10 +550,8 @@ class FriendServiceTest {
 
     given(userRepository.findById(targetId)).willReturn(Optional.of(target));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When, Then
     assertThatThrownBy(() -> underTest.blockUser(targetId))
@@ -594,10 +584,8 @@ class FriendServiceTest {
 
     given(userRepository.findById(targetId)).willReturn(Optional.of(target));
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When
     var responseDTO = underTest.blockUser(targetId);
@@ -624,10 +612,8 @@ class FriendServiceTest {
     var friendshipReversed = Friendship.builder()
         .srcPerson(target).dstPerson(user)
         .status(WASBLOCKEDBY).build();
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When
     var responseDTO = underTest.unblockUser(targetId);
@@ -662,10 +648,8 @@ class FriendServiceTest {
         .id(1_000L)
         .srcPerson(user).dstPerson(target)
         .status(FRIEND).build();
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.empty());
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship));
 
     // When, Then
     assertThatThrownBy(() -> underTest.unblockUser(targetId))
@@ -673,10 +657,8 @@ class FriendServiceTest {
         .hasMessageContaining(NO_PAIR_FOUND_FOR_RECORD_WITH_ID_PATTERN.substring(0, 15));
 
     // Given
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.empty());
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendship));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship));
 
     // When, Then
     assertThatThrownBy(() -> underTest.unblockUser(targetId))
@@ -702,10 +684,8 @@ class FriendServiceTest {
     var friendshipReversed = Friendship.builder()
         .srcPerson(target).dstPerson(user)
         .status(DEADLOCK).build();
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When
     var responseDTO = underTest.unblockUser(targetId);
@@ -729,10 +709,8 @@ class FriendServiceTest {
         .status(FRIEND).build();
     var friendshipReversed = Friendship.builder().srcPerson(target).dstPerson(user)
         .status(FRIEND).build();
-    given(friendshipRepository.findBySrcPersonAndDstPerson(user, target))
-        .willReturn(Optional.of(friendship));
-    given(friendshipRepository.findBySrcPersonAndDstPerson(target, user))
-        .willReturn(Optional.of(friendshipReversed));
+    given(friendshipRepository.findPair(user.getId(), target.getId()))
+        .willReturn(List.of(friendship, friendshipReversed));
 
     // When, Then
     assertThatThrownBy(() -> underTest.unblockUser(targetId))
@@ -748,28 +726,11 @@ class FriendServiceTest {
     isFriendsDTO.setUserIds(List.of(5L, 7L, 9L, 11L));
 
     User user = User.builder().id(1L).build();
-    User user2 = User.builder().id(2L).build();
-
-    User dest1 = User.builder().id(5L).build();
-    User dest2 = User.builder().id(7L).build();
-    User dest3 = User.builder().id(9L).build();
-    User dest4 = User.builder().id(11L).build();
-    User dest5 = User.builder().id(13L).build();
-
-    List<Friendship> friends = List.of(
-        Friendship.builder().id(1L).srcPerson(user).dstPerson(dest1).status(FRIEND).build(),
-        Friendship.builder().id(2L).srcPerson(user).dstPerson(dest2).status(FRIEND).build(),
-        Friendship.builder().id(3L).srcPerson(user).dstPerson(dest3).status(BLOCKED).build(),
-        Friendship.builder().id(4L).srcPerson(user2).dstPerson(dest4).status(FRIEND).build(),
-        Friendship.builder().id(5L).srcPerson(user).dstPerson(dest5).status(FRIEND).build()
-    );
 
     given(CurrentUserUtils.getCurrentUser()).willReturn(user);
-    given(friendshipRepository.findAllBySrcPersonAndDstPersonIdIn(user, isFriendsDTO.getUserIds()))
-        .willReturn(friends.stream()
-            .filter(fr -> fr.getSrcPerson().equals(user))
-            .filter(fr -> isFriendsDTO.getUserIds().contains(fr.getDstPerson().getId()))
-            .toList());
+    given(friendGraph.status(1L, 5L)).willReturn(FRIEND);
+    given(friendGraph.status(1L, 7L)).willReturn(FRIEND);
+    given(friendGraph.status(1L, 9L)).willReturn(BLOCKED);
 
     // When
     var statusFriendDTO = underTest.checkIsFriends(isFriendsDTO);
@@ -0,0 +1,102 @@
+package ru.skillbox.zerone.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.jdbc.Sql;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.exception.FriendshipException;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus;
+import ru.skillbox.zerone.backend.repository.FriendshipRepository;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.*;
+
+@Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+    "classpath:mock-friendship-users-insert.sql"})
+class FriendshipConcurrencyTest extends AbstractIntegrationTest {
+  private static final int THREADS = 16;
+  private static final int OPERATIONS = 2000;
+  private static final Map<FriendshipStatus, FriendshipStatus> VALID_PAIRS = Map.of(
+      SUBSCRIBED, REQUEST,
+      REQUEST, SUBSCRIBED,
+      FRIEND, FRIEND,
+      DECLINED, SUBSCRIBED,
+      BLOCKED, WASBLOCKEDBY,
+      WASBLOCKEDBY, BLOCKED,
+      DEADLOCK, DEADLOCK);
+
+  @Autowired
+  private FriendService friendService;
+  @Autowired
+  private FriendshipRepository friendshipRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @MockBean
+  private NotificationService notificationService;
+
+  @Test
+  void testFriendshipMutations_whenRunConcurrentlyFromBothSides_thenPairStaysConsistent() throws Exception {
+    // Given
+    var first = userRepository.findById(1L).orElseThrow();
+    var second = userRepository.findById(2L).orElseThrow();
+    List<LongConsumer> operations = List.of(
+        friendService::addFriend,
+        friendService::removeFriend,
+        friendService::blockUser,
+        friendService::unblockUser);
+    Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+    var executor = Executors.newFixedThreadPool(THREADS);
+
+    // When
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < OPERATIONS; i++) {
+      futures.add(executor.submit(() -> {
+        var random = ThreadLocalRandom.current();
+        boolean fromFirst = random.nextBoolean();
+        var actor = fromFirst ? first : second;
+        var target = fromFirst ? second : first;
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken(actor, null, List.of()));
+        try {
+          operations.get(random.nextInt(operations.size())).accept(target.getId());
+        } catch (Throwable e) {
+          if (!(e instanceof FriendshipException)) {
+            unexpected.add(e);
+          }
+        } finally {
+          SecurityContextHolder.clearContext();
+        }
+      }));
+    }
+    for (var future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // Then
+    assertThat(unexpected).isEmpty();
+    var pair = friendshipRepository.findPair(first.getId(), second.getId());
+    assertThat(pair).hasSizeIn(0, 2);
+    if (pair.size() == 2) {
+      var direct = pair.get(0).getSrcPerson().getId().equals(first.getId()) ? pair.get(0) : pair.get(1);
+      var reversed = direct == pair.get(0) ? pair.get(1) : pair.get(0);
+      assertThat(reversed.getSrcPerson().getId()).isEqualTo(second.getId());
+      assertThat(VALID_PAIRS).containsEntry(direct.getStatus(), reversed.getStatus());
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package ru.skillbox.zerone.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.jdbc.Sql;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.model.dto.request.LikeRequestDTO;
+import ru.skillbox.zerone.backend.model.enumerated.LikeType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+    "classpath:mock-posts-insert.sql"})
+@WithUserDetails("testAccount@hotmail.com")
+class LikeServiceTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private LikeService likeService;
+  @Autowired
+  private LikeStoreService likeStoreService;
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void clearLikes() {
+    var keys = redisTemplate.keys("likes:*");
+    if (keys != null && !keys.isEmpty()) {
+      redisTemplate.delete(keys);
+    }
+  }
+
+  @Test
+  void testPutLike_whenLikedTwice_thenCountedOnceAndPersistedOnFlush() {
+    jdbcTemplate.update("INSERT INTO \"like\" (time, type, post_id, user_id) VALUES (now(), 'POST', 1, 2)");
+    var request = new LikeRequestDTO();
+    request.setType("Post");
+    request.setId(1L);
+
+    likeService.putLike(request);
+    var response = likeService.putLike(request);
+
+    assertEquals(2, response.getData().getLikes());
+    assertEquals(List.of(1L, 2L), response.getData().getUsers());
+    assertEquals(1, countLikes(1, 2));
+    assertEquals(0, countLikes(1, 1));
+
+    likeStoreService.flush();
+
+    assertEquals(1, countLikes(1, 1));
+  }
+
+  @Test
+  void testDeleteLike_whenFlushed_thenRowRemoved() {
+    var request = new LikeRequestDTO();
+    request.setType("Post");
+    request.setId(1L);
+    likeService.putLike(request);
+    likeStoreService.flush();
+
+    var response = likeService.deleteLike(1L, LikeType.POST);
+    likeStoreService.flush();
+
+    assertEquals(0, response.getData().getLikes());
+    assertEquals(0, countLikes(1, 1));
+  }
+
+  @Test
+  void testGetLikes_whenPaged_thenReturnOnlyRequestedPage() {
+    jdbcTemplate.update("""
+        INSERT INTO "like" (time, type, post_id, user_id)
+        VALUES ('2023-01-01 10:00:00', 'POST', 4, 1), ('2023-01-02 10:00:00', 'POST', 4, 2)
+        """);
+
+    var firstPage = likeService.getLikes(4L, LikeType.POST, 0, 1);
+    var secondPage = likeService.getLikes(4L, LikeType.POST, 1, 1);
+
+    assertEquals(2, firstPage.getData().getLikes());
+    assertEquals(List.of(2L), firstPage.getData().getUsers());
+    assertEquals(List.of(1L), secondPage.getData().getUsers());
+  }
+
+  @Test
+  void testFlush_whenEventKeepsFailing_thenMovedToDeadLetterAndRestPersisted() {
+    long now = System.currentTimeMillis();
+    String broken = "1:COMMENT:999999:1:" + now;
+    redisTemplate.opsForList().leftPush("likes:queue", broken);
+    redisTemplate.opsForList().leftPush("likes:queue", "1:POST:1:1:" + now);
+
+    likeStoreService.flush();
+    likeStoreService.flush();
+    assertEquals(0, countLikes(1, 1));
+    assertEquals(2L, redisTemplate.opsForList().size("likes:queue:processing"));
+
+    likeStoreService.flush();
+
+    assertEquals(1, countLikes(1, 1));
+    assertEquals(List.of(broken), redisTemplate.opsForList().range("likes:queue:dead", 0, -1));
+    assertFalse(redisTemplate.hasKey("likes:queue:processing"));
+    assertFalse(redisTemplate.hasKey("likes:queue:attempts"));
+  }
+
+  @Test
+  void testFlush_whenLockHeldByAnotherNode_thenLockKeptAndQueueUntouched() {
+    redisTemplate.opsForValue().set("likes:queue:lock", "other-node");
+    redisTemplate.opsForList().leftPush("likes:queue", "1:POST:1:1:" + System.currentTimeMillis());
+
+    likeStoreService.flush();
+
+    assertEquals("other-node", redisTemplate.opsForValue().get("likes:queue:lock"));
+    assertEquals(1L, redisTemplate.opsForList().size("likes:queue"));
+    assertEquals(0, countLikes(1, 1));
+  }
+
+  @Test
+  void testLoad_whenRemovedBeforeFlush_thenSnapshotDoesNotRestoreLike() {
+    jdbcTemplate.update("INSERT INTO \"like\" (time, type, post_id, user_id) VALUES (now(), 'POST', 1, 2)");
+    likeStoreService.load(LikeType.POST, 1);
+    likeStoreService.remove(LikeType.POST, 1, 2);
+
+    likeStoreService.load(LikeType.POST, 1);
+
+    assertFalse(likeStoreService.isLiked(LikeType.POST, 1, 2));
+    assertEquals(0, likeStoreService.count(LikeType.POST, 1));
+  }
+
+  @Test
+  void testLoad_whenAnotherNodeIsLoading_thenSnapshotNotWritten() {
+    jdbcTemplate.update("INSERT INTO \"like\" (time, type, post_id, user_id) VALUES (now(), 'POST', 1, 2)");
+    redisTemplate.opsForValue().set("likes:load:POST:1", "other-node");
+
+    likeStoreService.load(LikeType.POST, 1);
+
+    assertFalse(likeStoreService.isLoaded(LikeType.POST, 1));
+    assertEquals("other-node", redisTemplate.opsForValue().get("likes:load:POST:1"));
+  }
+
+  private int countLikes(long postId, long userId) {
+    Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM \"like\" WHERE post_id = ? AND user_id = ?",
+        Integer.class, postId, userId);
+    return count == null ? 0 : count;
+  }
+}
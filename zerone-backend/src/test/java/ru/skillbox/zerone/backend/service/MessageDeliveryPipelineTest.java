@@ -0,0 +1,146 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.skillbox.zerone.backend.model.entity.Dialog;
+import ru.skillbox.zerone.backend.model.entity.Message;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class MessageDeliveryPipelineTest {
+  @Mock
+  private SocketIOService socketIOService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private MessageDeliveryPipeline underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new MessageDeliveryPipeline(socketIOService, meterRegistry);
+    ReflectionTestUtils.setField(underTest, "workers", 4);
+    ReflectionTestUtils.setField(underTest, "queueCapacity", 8);
+    ReflectionTestUtils.setField(underTest, "submitTimeout", 1000L);
+    ReflectionTestUtils.setField(underTest, "maxAttempts", 3);
+    ReflectionTestUtils.setField(underTest, "retryBackoff", 1L);
+    ReflectionTestUtils.setField(underTest, "shutdownTimeout", 10000L);
+    underTest.start();
+  }
+
+  @Test
+  void testSubmit_whenManyMessagesInOneDialog_thenDeliveredInOrder() throws Exception {
+    // Given
+    var delivered = Collections.synchronizedList(new ArrayList<Long>());
+    willAnswer(invocation -> delivered.add(invocation.<Message>getArgument(0).getId()))
+        .given(socketIOService).sendMessageEvent(any());
+    var dialogs = List.of(dialog(1), dialog(2), dialog(3));
+
+    // When
+    LongStream.rangeClosed(1, 60).forEach(id -> underTest.submit(message(id, dialogs.get((int) (id % 3)))));
+    underTest.stop();
+
+    // Then
+    for (long dialogId = 0; dialogId < 3; dialogId++) {
+      long remainder = dialogId;
+      assertThat(delivered.stream().filter(id -> id % 3 == remainder).toList()).isSorted().hasSize(20);
+    }
+    assertThat(meterRegistry.get("messages.delivery.delivered").counter().count()).isEqualTo(60);
+    assertThat(meterRegistry.get("messages.delivery.latency").timer().count()).isEqualTo(60);
+    assertThat(underTest.backlog()).isZero();
+  }
+
+  @Test
+  void testSubmit_whenSocketFailsOnce_thenRetriedAndDelivered() throws Exception {
+    // Given
+    var message = message(1, dialog(1));
+    willThrow(new IllegalStateException("boom")).willDoNothing().given(socketIOService).sendMessageEvent(message);
+
+    // When
+    underTest.submit(message);
+    underTest.stop();
+
+    // Then
+    then(socketIOService).should(times(2)).sendMessageEvent(message);
+    assertThat(meterRegistry.get("messages.delivery.retried").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("messages.delivery.delivered").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void testSubmit_whenSocketKeepsFailing_thenFailureIsCounted() throws Exception {
+    // Given
+    var message = message(1, dialog(1));
+    willThrow(new IllegalStateException("boom")).given(socketIOService).sendMessageEvent(message);
+
+    // When
+    underTest.submit(message);
+    underTest.stop();
+
+    // Then
+    then(socketIOService).should(times(3)).sendMessageEvent(message);
+    assertThat(meterRegistry.get("messages.delivery.failed").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("messages.delivery.delivered").counter().count()).isZero();
+  }
+
+  @Test
+  void testSubmit_whenStripeQueueIsFull_thenDeliveryRejectedAndNotRunInline() throws Exception {
+    // Given
+    underTest.stop();
+    ReflectionTestUtils.setField(underTest, "workers", 1);
+    ReflectionTestUtils.setField(underTest, "queueCapacity", 1);
+    ReflectionTestUtils.setField(underTest, "submitTimeout", 10L);
+    underTest.start();
+    var release = new CountDownLatch(1);
+    var callers = Collections.synchronizedList(new ArrayList<Thread>());
+    willAnswer(invocation -> {
+      callers.add(Thread.currentThread());
+      release.await();
+      return null;
+    }).given(socketIOService).sendMessageEvent(any());
+    var dialog = dialog(1);
+
+    // When
+    underTest.submit(message(1, dialog));
+    underTest.submit(message(2, dialog));
+    underTest.submit(message(3, dialog));
+    release.countDown();
+    underTest.stop();
+
+    // Then
+    assertThat(meterRegistry.get("messages.delivery.overflowed").counter().count()).isGreaterThanOrEqualTo(1);
+    assertThat(callers).doesNotContain(Thread.currentThread());
+    assertThat(meterRegistry.get("messages.delivery.delivered").counter().count())
+        .isEqualTo(3 - meterRegistry.get("messages.delivery.overflowed").counter().count());
+  }
+
+  private Dialog dialog(long id) {
+    var dialog = new Dialog();
+    dialog.setId(id);
+    return dialog;
+  }
+
+  private Message message(long id, Dialog dialog) {
+    var message = new Message();
+    message.setId(id);
+    message.setDialog(dialog);
+    message.setSentTime(LocalDateTime.now());
+    return message;
+  }
+}
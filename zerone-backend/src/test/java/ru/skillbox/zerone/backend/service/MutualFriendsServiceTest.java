@@ -0,0 +1,135 @@
+package ru.skillbox.zerone.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.skillbox.zerone.backend.mapstruct.UserMapper;
+import ru.skillbox.zerone.backend.model.dto.response.MutualFriendsCountDTO;
+import ru.skillbox.zerone.backend.model.dto.response.UserDTO;
+import ru.skillbox.zerone.backend.model.entity.Friendship;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.repository.FriendshipRepository;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+import ru.skillbox.zerone.backend.util.CurrentUserUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.FRIEND;
+
+@ExtendWith(MockitoExtension.class)
+class MutualFriendsServiceTest {
+  @Mock
+  private FriendshipRepository friendshipRepository;
+  @Mock
+  private UserRepository userRepository;
+  @Mock
+  private UserMapper userMapper;
+
+  private MockedStatic<CurrentUserUtils> utilsMockedStatic;
+  private FriendGraph friendGraph;
+  private MutualFriendsService underTest;
+
+  @BeforeEach
+  void setUp() {
+    utilsMockedStatic = Mockito.mockStatic(CurrentUserUtils.class);
+    friendGraph = new FriendGraph(friendshipRepository, mock(ClusterBroadcast.class));
+    friends(1, 3);
+    friends(1, 4);
+    friends(1, 5);
+    friends(2, 3);
+    friends(2, 5);
+    friends(2, 6);
+    friends(7, 3);
+
+    underTest = new MutualFriendsService(friendGraph, userRepository, userMapper);
+    ReflectionTestUtils.setField(underTest, "cacheSize", 100);
+    underTest.subscribe();
+  }
+
+  @AfterEach
+  void tearDown() {
+    utilsMockedStatic.close();
+  }
+
+  @Test
+  void testGetMutualFriends_whenFriendsIntersect_thenCountAndPageReturned() {
+    // Given
+    utilsMockedStatic.when(CurrentUserUtils::getCurrentUser).thenReturn(user(1));
+    var friend = user(5);
+    given(userRepository.findUsersByIdIn(List.of(5L))).willReturn(List.of(friend));
+    var friendDTO = UserDTO.builder().id(5L).build();
+    given(userMapper.usersToUserDTO(List.of(friend))).willReturn(List.of(friendDTO));
+
+    // When
+    var response = underTest.getMutualFriends(2, 1, 1);
+
+    // Then
+    assertThat(response.getTotal()).isEqualTo(2);
+    assertThat(response.getData()).containsExactly(friendDTO);
+  }
+
+  @Test
+  void testGetMutualFriendsCounts_whenPageOfUsers_thenCountsReturnedInOneCall() {
+    // Given
+    utilsMockedStatic.when(CurrentUserUtils::getCurrentUser).thenReturn(user(1));
+
+    // When
+    var response = underTest.getMutualFriendsCounts(List.of(2L, 7L, 6L, 2L));
+
+    // Then
+    assertThat(response.getData()).containsExactly(
+        new MutualFriendsCountDTO(2L, 2),
+        new MutualFriendsCountDTO(7L, 1),
+        new MutualFriendsCountDTO(6L, 0));
+  }
+
+  @Test
+  void testMutual_whenFriendshipChanges_thenCachedValueEvicted() {
+    // Given
+    assertThat(underTest.mutual(1, 2)).containsExactly(3, 5);
+
+    // When
+    friends(2, 4);
+
+    // Then
+    assertThat(underTest.mutual(2, 1)).containsExactly(3, 4, 5);
+  }
+
+  @Test
+  void testMutual_whenCacheFull_thenLeastRecentlyUsedEvictedWithIndex() {
+    // Given
+    ReflectionTestUtils.setField(underTest, "cacheSize", 2);
+    underTest.mutual(1, 2);
+    underTest.mutual(1, 7);
+    underTest.mutual(1, 2);
+
+    // When
+    underTest.mutual(2, 6);
+
+    // Then
+    Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(underTest, "cache");
+    Map<?, ?> keysByUser = (Map<?, ?>) ReflectionTestUtils.getField(underTest, "keysByUser");
+    assertThat(cache).hasSize(2);
+    assertThat(keysByUser).containsOnlyKeys(1L, 2L, 6L);
+  }
+
+  private void friends(long first, long second) {
+    friendGraph.apply(List.of(
+        Friendship.builder().srcPerson(user(first)).dstPerson(user(second)).status(FRIEND).build(),
+        Friendship.builder().srcPerson(user(second)).dstPerson(user(first)).status(FRIEND).build()));
+  }
+
+  private User user(long id) {
+    return User.builder().id(id).build();
+  }
+}
@@ -11,6 +11,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.skillbox.zerone.backend.mapstruct.PostMapper;
 import ru.skillbox.zerone.backend.mapstruct.UserMapper;
 import ru.skillbox.zerone.backend.model.dto.request.PostRequestDTO;
@@ -61,6 +62,9 @@ class PostServiceTest implements PostMockUtils {
   @Mock
   private NotificationService notificationService;
 
+  @Mock
+  private FeedService feedService;
+
   private final MockedStatic<CurrentUserUtils> utilsMockedStatic = Mockito.mockStatic(CurrentUserUtils.class);
 
   @InjectMocks
@@ -104,6 +108,8 @@ class PostServiceTest implements PostMockUtils {
     assertNull(response.getError());
     verify(postRepository, Mockito.times(1))
         .save(Mockito.any(Post.class));
+    verify(feedService, Mockito.times(1))
+        .fanOut(Mockito.any(Post.class));
   }
 
 
@@ -141,12 +147,13 @@ class PostServiceTest implements PostMockUtils {
 
     utilsMockedStatic.when(CurrentUserUtils::getCurrentUser).thenReturn(currentTestUser);
 
-    when(postRepository.getPostsForFeeds(Mockito.eq(currentTestUser.getId()), any(Pageable.class))).thenReturn(new PageImpl<>(posts));
+    when(feedService.getFeed(Mockito.eq(currentTestUser.getId()), any(Pageable.class))).thenReturn(new SliceImpl<>(posts));
     when(postMapper.toDtoList(anyList())).thenReturn(dtoList);
 
-    CommonListResponseDTO<PostDTO> responseDTO = postService.getFeeds(0, 10);
+    CommonListResponseDTO<PostDTO> responseDTO = postService.getFeeds(0, 10, null);
     assertEquals(2, responseDTO.getData().size());
-    verify(postRepository, Mockito.times(1)).getPostsForFeeds(Mockito.eq(currentTestUser.getId()), any(Pageable.class));
+    assertEquals(2, responseDTO.getTotal());
+    verify(feedService, Mockito.times(1)).getFeed(Mockito.eq(currentTestUser.getId()), any(Pageable.class));
   }
 
   @Test
@@ -163,7 +170,7 @@ class PostServiceTest implements PostMockUtils {
     when(postRepository.getPostsForUsersWall(Mockito.eq(currentTestUser.getId()), any(Pageable.class))).thenReturn(new PageImpl<>(posts));
     when(postMapper.toDtoList(anyList())).thenReturn(dtoList);
 
-    CommonListResponseDTO<PostDTO> responseDTO = postService.getAuthorWall(currentTestUser.getId(), 0, 5);
+    CommonListResponseDTO<PostDTO> responseDTO = postService.getAuthorWall(currentTestUser.getId(), 0, 5, null);
     assertEquals(2, responseDTO.getData().size());
     verify(postRepository, Mockito.times(1))
         .getPostsForUsersWall(Mockito.eq(currentTestUser.getId()), any(Pageable.class));
@@ -0,0 +1,151 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+  @Mock
+  private ClusterEventBus clusterEventBus;
+  @Mock
+  private UserRepository userRepository;
+  @Mock
+  private TransactionTemplate transactionTemplate;
+  @Captor
+  private ArgumentCaptor<String> payloadCaptor;
+
+  private SimpleMeterRegistry meterRegistry;
+  private SocketSessionRegistry sessionRegistry;
+  private PresenceService underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    sessionRegistry = new SocketSessionRegistry(meterRegistry);
+    underTest = new PresenceService(sessionRegistry, clusterEventBus, userRepository, transactionTemplate, meterRegistry);
+    ReflectionTestUtils.setField(underTest, "flushBatchSize", 2);
+    underTest.registerMetrics();
+  }
+
+  @Test
+  void testFlush_whenSeveralUsersTouched_thenWrittenInBatchesAndCleared() {
+    // Given
+    runTransactionCallbacks();
+    underTest.touch(1);
+    underTest.touch(2);
+    underTest.touch(3);
+    underTest.touch(1);
+
+    // When
+    underTest.flush();
+
+    // Then
+    then(userRepository).should(times(2)).updateLastOnlineTimes(payloadCaptor.capture());
+    assertThat(payloadCaptor.getAllValues())
+        .allSatisfy(payload -> assertThat(payload).startsWith("[{\"id\":").endsWith("\"}]"));
+    assertThat(String.join("", payloadCaptor.getAllValues()))
+        .contains("\"id\":1,", "\"id\":2,", "\"id\":3,");
+    assertThat(underTest.lastSeen(1)).isEmpty();
+    assertThat(meterRegistry.get("presence.flushed").counter().count()).isEqualTo(3);
+    assertThat(meterRegistry.get("presence.pending").gauge().value()).isZero();
+  }
+
+  @Test
+  void testFlush_whenTouchedDuringWrite_thenNewerTimestampKept() {
+    // Given
+    underTest.touch(1);
+    willAnswer(invocation -> {
+      Thread.sleep(1);
+      underTest.touch(1);
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).given(transactionTemplate).executeWithoutResult(any());
+
+    // When
+    underTest.flush();
+
+    // Then
+    assertThat(underTest.lastSeen(1)).isPresent();
+    assertThat(meterRegistry.get("presence.pending").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void testFlush_whenNothingTouched_thenDatabaseUntouched() {
+    // When
+    underTest.flush();
+
+    // Then
+    then(transactionTemplate).shouldHaveNoInteractions();
+  }
+
+  @Test
+  void testTouch_whenNotFlushed_thenLastSeenServedFromMemory() {
+    // When
+    underTest.touch(5);
+
+    // Then
+    assertThat(underTest.lastSeen(5)).isPresent();
+    then(userRepository).shouldHaveNoInteractions();
+  }
+
+  @Test
+  void testOnlineAmong_whenSomeUsersAreLocal_thenOnlyOthersAskedFromCluster() {
+    // Given
+    var client = mock(SocketIOClient.class);
+    given(client.getSessionId()).willReturn(UUID.randomUUID());
+    sessionRegistry.register(1, client);
+    given(clusterEventBus.connectedAnywhere(List.of(2L, 3L))).willReturn(Set.of(3L));
+
+    // When
+    var online = underTest.onlineAmong(List.of(1L, 2L, 3L));
+
+    // Then
+    assertThat(online).containsExactlyInAnyOrder(1L, 3L);
+  }
+
+  @Test
+  void testOnlineAmong_whenAllUsersAreLocal_thenClusterNotAsked() {
+    // Given
+    var client = mock(SocketIOClient.class);
+    given(client.getSessionId()).willReturn(UUID.randomUUID());
+    sessionRegistry.register(1, client);
+
+    // When
+    var online = underTest.onlineAmong(List.of(1L));
+
+    // Then
+    assertThat(online).containsExactly(1L);
+    then(clusterEventBus).shouldHaveNoInteractions();
+  }
+
+  private void runTransactionCallbacks() {
+    willAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).given(transactionTemplate).executeWithoutResult(any());
+  }
+}
@@ -0,0 +1,95 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationRefreshQueueTest {
+  @Mock
+  private RecommendationService recommendationService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private RecommendationRefreshQueue underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new RecommendationRefreshQueue(recommendationService, meterRegistry);
+    ReflectionTestUtils.setField(underTest, "debounce", 1000L);
+    ReflectionTestUtils.setField(underTest, "maxDelay", 5000L);
+    ReflectionTestUtils.setField(underTest, "pollDelay", 3600000L);
+    underTest.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    underTest.stop();
+  }
+
+  @Test
+  void testDrain_whenBurstForOneUser_thenSingleRefreshAfterDebounce() {
+    // Given
+    underTest.schedule(1, 0);
+    underTest.schedule(1, 500);
+    underTest.schedule(1, 900);
+    underTest.schedule(2, 100);
+
+    // When
+    underTest.drain(1500);
+
+    // Then
+    then(recommendationService).should().refresh(2);
+    then(recommendationService).should(times(0)).refresh(1);
+    assertThat(underTest.backlog()).isEqualTo(1);
+    assertThat(meterRegistry.get("recommendations.refresh.backlog").gauge().value()).isEqualTo(1);
+
+    // When
+    underTest.drain(1900);
+
+    // Then
+    then(recommendationService).should(times(1)).refresh(1);
+    assertThat(underTest.backlog()).isZero();
+    assertThat(meterRegistry.get("recommendations.refresh.requested").counter().count()).isEqualTo(4);
+    assertThat(meterRegistry.get("recommendations.refresh.completed").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void testSchedule_whenRequestsKeepComing_thenMaxDelayBoundsDebounce() {
+    // Given
+    for (long now = 0; now <= 6000; now += 500) {
+      underTest.schedule(1, now);
+    }
+
+    // When
+    underTest.drain(6000);
+
+    // Then
+    then(recommendationService).should().refresh(1);
+  }
+
+  @Test
+  void testDrain_whenRefreshFails_thenFailureIsCountedAndQueueContinues() {
+    // Given
+    given(recommendationService.refresh(anyLong())).willThrow(new IllegalStateException("boom"));
+    underTest.schedule(1, 0);
+
+    // When
+    underTest.drain(2000);
+
+    // Then
+    assertThat(underTest.backlog()).isZero();
+    assertThat(meterRegistry.get("recommendations.refresh.failed").counter().count()).isEqualTo(1);
+  }
+}
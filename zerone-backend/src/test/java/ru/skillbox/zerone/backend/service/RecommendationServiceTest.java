@@ -0,0 +1,202 @@
+package ru.skillbox.zerone.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skillbox.zerone.backend.model.entity.Friendship;
+import ru.skillbox.zerone.backend.model.entity.Recommendation;
+import ru.skillbox.zerone.backend.model.entity.RecommendationCheckpoint;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus;
+import ru.skillbox.zerone.backend.model.projection.RecommendationProfile;
+import ru.skillbox.zerone.backend.repository.FriendshipRepository;
+import ru.skillbox.zerone.backend.repository.RecommendationCheckpointRepository;
+import ru.skillbox.zerone.backend.repository.RecommendationRepository;
+import ru.skillbox.zerone.backend.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationServiceTest {
+  private static final LocalDateTime LAST_ONLINE_TIME = LocalDateTime.now();
+
+  @Mock
+  private FriendshipRepository friendshipRepository;
+  @Mock
+  private UserRepository userRepository;
+  @Mock
+  private RecommendationRepository recommendationRepository;
+  @Mock
+  private RecommendationCheckpointRepository checkpointRepository;
+  @Mock
+  private TransactionTemplate transactionTemplate;
+  @Mock
+  private RedisLockService redisLockService;
+  @Captor
+  private ArgumentCaptor<Recommendation> recommendationCaptor;
+  @Captor
+  private ArgumentCaptor<String> payloadCaptor;
+  @Captor
+  private ArgumentCaptor<RecommendationCheckpoint> checkpointCaptor;
+
+  private RecommendationService underTest;
+
+  @BeforeEach
+  void setUp() {
+    var friendGraph = new FriendGraph(friendshipRepository, mock(ClusterBroadcast.class));
+    friends(friendGraph, 1, 2);
+    friends(friendGraph, 1, 3);
+    friends(friendGraph, 2, 4);
+    friends(friendGraph, 3, 4);
+    friends(friendGraph, 3, 5);
+    friends(friendGraph, 2, 6);
+    friendGraph.apply(List.of(friendship(1, 6, BLOCKED), friendship(6, 1, WASBLOCKEDBY)));
+
+    underTest = new RecommendationService(friendGraph, userRepository, recommendationRepository,
+        checkpointRepository, transactionTemplate, redisLockService);
+    ReflectionTestUtils.setField(underTest, "size", 3);
+    ReflectionTestUtils.setField(underTest, "fallbackPoolSize", 10);
+    ReflectionTestUtils.setField(underTest, "parallelism", 2);
+    ReflectionTestUtils.setField(underTest, "chunkSize", 10);
+  }
+
+  @Test
+  void testRefresh_whenFriendsOfFriendsExist_thenRankedByMutualFriendsAndFilledFromCity() {
+    // Given
+    given(userRepository.findRecommendationProfilesByIdIn(anyCollection()))
+        .willReturn(List.of(profile(1, "Москва"), profile(4, "Казань"), profile(5, "Москва"), profile(6, "Москва")));
+    given(userRepository.findRecentlyOnlineIdsByCity(eq("Москва"), any()))
+        .willReturn(List.of(1L, 5L, 2L, 7L));
+    given(recommendationRepository.save(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+    // When
+    underTest.refresh(1);
+
+    // Then
+    then(recommendationRepository).should().save(recommendationCaptor.capture());
+    assertThat(recommendationCaptor.getValue().getId()).isEqualTo(1L);
+    assertThat(recommendationCaptor.getValue().getRecommendedFriends()).containsExactly(4L, 5L, 7L);
+  }
+
+  @Test
+  void testRefreshAll_whenNoCheckpoint_thenStaleUsersAreUpsertedInChunks() {
+    // Given
+    given(checkpointRepository.findById(1L)).willReturn(Optional.empty());
+    given(recommendationRepository.findStaleUserIds(0L, 10)).willReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L));
+    given(userRepository.findRecommendationProfilesByIdIn(anyCollection())).willReturn(List.of(
+        profile(1, ""), profile(2, ""), profile(3, ""), profile(4, ""), profile(5, ""), profile(6, "")));
+    given(userRepository.findRecentlyOnlineIds(any())).willReturn(List.of());
+    runTransactionCallbacks();
+    runLocked();
+
+    // When
+    underTest.refreshAll();
+
+    // Then
+    then(recommendationRepository).should().upsertAll(payloadCaptor.capture(), any());
+    assertThat(payloadCaptor.getValue()).isEqualTo("[{\"id\":1,\"friends\":[4, 5]},{\"id\":2,\"friends\":[3]},"
+        + "{\"id\":3,\"friends\":[2]},{\"id\":4,\"friends\":[1, 5, 6]},{\"id\":5,\"friends\":[1, 4]},"
+        + "{\"id\":6,\"friends\":[4]}]");
+    then(checkpointRepository).should().save(checkpointCaptor.capture());
+    assertThat(checkpointCaptor.getValue().getLastUserId()).isEqualTo(6L);
+    then(checkpointRepository).should().deleteById(1L);
+  }
+
+  @Test
+  void testRefreshAll_whenCheckpointExists_thenResumesAfterLastUser() {
+    // Given
+    var startedAt = LocalDateTime.now().minusHours(1);
+    given(checkpointRepository.findById(1L)).willReturn(Optional.of(
+        RecommendationCheckpoint.builder().id(1L).startedAt(startedAt).lastUserId(4L).build()));
+    given(recommendationRepository.findStaleUserIds(4L, 10)).willReturn(List.of(5L));
+    given(userRepository.findRecommendationProfilesByIdIn(anyCollection())).willReturn(List.of(
+        profile(1, ""), profile(4, ""), profile(5, "")));
+    runTransactionCallbacks();
+    runLocked();
+
+    // When
+    underTest.refreshAll();
+
+    // Then
+    then(recommendationRepository).should().upsertAll("[{\"id\":5,\"friends\":[1, 4]}]", startedAt);
+    then(checkpointRepository).should().deleteById(1L);
+  }
+
+  @Test
+  void testRefreshAll_whenLockHeldByAnotherNode_thenSkipped() {
+    // Given
+    given(redisLockService.runExclusively(eq("recommendations:refresh:lock"), any(), any())).willReturn(false);
+
+    // When
+    underTest.refreshAll();
+
+    // Then
+    then(checkpointRepository).shouldHaveNoInteractions();
+    then(recommendationRepository).shouldHaveNoInteractions();
+  }
+
+  private void runLocked() {
+    willAnswer(invocation -> {
+      invocation.<Runnable>getArgument(2).run();
+      return true;
+    }).given(redisLockService).runExclusively(eq("recommendations:refresh:lock"), any(), any());
+  }
+
+  private void runTransactionCallbacks() {
+    willAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).given(transactionTemplate).executeWithoutResult(any());
+  }
+
+  private void friends(FriendGraph friendGraph, long first, long second) {
+    friendGraph.apply(List.of(friendship(first, second, FRIEND), friendship(second, first, FRIEND)));
+  }
+
+  private Friendship friendship(long srcId, long dstId, FriendshipStatus status) {
+    return Friendship.builder()
+        .srcPerson(User.builder().id(srcId).build())
+        .dstPerson(User.builder().id(dstId).build())
+        .status(status)
+        .build();
+  }
+
+  private RecommendationProfile profile(long id, String city) {
+    return new RecommendationProfile() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public String getCity() {
+        return city;
+      }
+
+      @Override
+      public LocalDateTime getLastOnlineTime() {
+        return LAST_ONLINE_TIME;
+      }
+    };
+  }
+}
@@ -59,6 +59,28 @@ class SearchServiceTest extends AbstractIntegrationTest {
     assertEquals(minUsersCount, response.getTotalElements());
   }
 
+  @Test
+  @Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:search-service-mock-data-insert.sql"})
+  void testSearchUsersSlice_whenMoreUsersThanPage_thenReturnHasNext() {
+    var response = searchService.searchUsersSlice(null, "Doe", null, null, null, null, PageRequest.of(0, 1));
+
+    assertEquals(1, response.getNumberOfElements());
+    assertTrue(response.hasNext());
+
+    var lastPage = searchService.searchUsersSlice(null, "Doe", null, null, null, null, PageRequest.of(1, 1));
+
+    assertEquals(1, lastPage.getNumberOfElements());
+    assertFalse(lastPage.hasNext());
+  }
+
+  @Test
+  @Sql(scripts = "classpath:search-service-mock-data-insert.sql")
+  void testSearchUsers_whenWildcardInName_thenMatchLiterally() {
+    var response = searchService.searchUsers("J_hn", null, null, null, null, null, defaultPageable);
+
+    assertTrue(response.getContent().isEmpty());
+  }
+
   @Test
   @Sql(scripts = "classpath:search-service-mock-data-insert.sql")
   void testSearchUsers_whenFirstNameAndLastName_thenReturnExpectedUser() {
@@ -110,6 +132,41 @@ class SearchServiceTest extends AbstractIntegrationTest {
     assertEquals(expectedPostsCount, result.getTotalElements());
   }
 
+  @Test
+  @Sql(scripts = "classpath:search-service-mock-data-insert.sql")
+  void testSearchPosts_whenInflectedWord_thenMatchByStem() {
+    var result = searchService.searchPosts("test2 posts", null, null, null, defaultPageable);
+
+    assertEquals(2, result.getTotalElements());
+    assertTrue(result.getContent().stream().allMatch(post -> post.getPostText().startsWith("test2 post")));
+  }
+
+  @Test
+  @Sql(scripts = "classpath:search-service-mock-data-insert.sql")
+  void testSearchPosts_whenWordsInAnyOrder_thenMatchAllWords() {
+    var result = searchService.searchPosts("text test3", null, null, null, defaultPageable);
+
+    assertEquals(1, result.getTotalElements());
+    assertTrue(result.getContent().get(0).getPostText().startsWith("test3"));
+  }
+
+  @Test
+  @Sql(scripts = "classpath:search-service-mock-data-insert.sql")
+  void testSearchPosts_whenOneWordMissing_thenReturnEmptyPage() {
+    var result = searchService.searchPosts("test3 some", null, null, null, defaultPageable);
+
+    assertTrue(result.getContent().isEmpty());
+  }
+
+  @Test
+  @Sql(scripts = "classpath:search-service-mock-data-insert.sql")
+  void testSearchPosts_whenTextMatchesTitleAndBody_thenTitleRanksFirst() {
+    var result = searchService.searchPosts("title", null, null, null, PageRequest.of(0, 1));
+
+    assertFalse(result.getContent().isEmpty());
+    assertTrue(result.getContent().get(0).getTitle().toLowerCase().contains("title"));
+  }
+
   @Test
   @Sql(scripts = "classpath:search-service-mock-data-insert.sql")
   void testSearchPosts_whenTextAndName_thenReturnExpectedPost() {
@@ -0,0 +1,117 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.entity.WebSocketConnection;
+import ru.skillbox.zerone.backend.repository.WebSocketConnectionRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@Slf4j
+class SocketEventThroughputTest extends AbstractIntegrationTest {
+  private static final int USERS = 100;
+  private static final int SESSIONS_PER_USER = 2;
+  private static final int WARMUP_EVENTS = 2000;
+  private static final int EVENTS = 10000;
+
+  @Autowired
+  private WebSocketConnectionRepository webSocketConnectionRepository;
+  @Autowired
+  private SocketSessionRegistry sessionRegistry;
+  @Autowired
+  private SocketIOService socketIOService;
+
+  private final Map<UUID, SocketIOClient> clients = new HashMap<>();
+  private final List<WebSocketConnection> connections = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    for (long userId = 1; userId <= USERS; userId++) {
+      for (int i = 0; i < SESSIONS_PER_USER; i++) {
+        var client = mock(SocketIOClient.class);
+        var sessionId = UUID.randomUUID();
+        given(client.getSessionId()).willReturn(sessionId);
+        clients.put(sessionId, client);
+        connections.add(new WebSocketConnection(sessionId, String.valueOf(userId)));
+        sessionRegistry.register(userId, client);
+      }
+    }
+    webSocketConnectionRepository.saveAll(connections);
+  }
+
+  @AfterEach
+  void tearDown() {
+    clients.values().forEach(sessionRegistry::unregister);
+    webSocketConnectionRepository.deleteAll(connections);
+  }
+
+  @Test
+  void testSendEventToPerson_whenSessionsAreLocal_thenEverySessionOfUserReceivesEventOnce() {
+    // When
+    for (long userId = 1; userId <= USERS; userId++) {
+      socketIOService.sendEventToPerson(new User().setId(userId), "fan-out", userId);
+    }
+
+    // Then
+    connections.forEach(connection -> {
+      var client = clients.get(connection.getSessionId());
+      var userId = Long.parseLong(connection.getUserId());
+      verify(client).sendEvent("fan-out", userId);
+      verify(client, never()).sendEvent(eq("fan-out"), not(eq(userId)));
+    });
+  }
+
+  @Test
+  @Tag("benchmark")
+  void testSendEventToPerson_whenSessionsAreLocal_thenRegistryOutperformsRedisLookup() {
+    var payload = "event";
+    LongConsumer redisLookup = userId -> webSocketConnectionRepository.findAllByUserId(String.valueOf(userId))
+        .forEach(connection -> {
+          var client = clients.get(connection.getSessionId());
+          if (client != null) {
+            client.sendEvent("benchmark", payload);
+          }
+        });
+    LongConsumer localRegistry = userId ->
+        socketIOService.sendEventToPerson(new User().setId(userId), "benchmark", payload);
+
+    var before = eventsPerSecond(redisLookup);
+    var after = eventsPerSecond(localRegistry);
+    log.info(String.format("Socket fan-out: Redis lookup %.0f events/s, local registry %.0f events/s", before, after));
+
+    assertThat(after).isGreaterThan(before);
+    clients.values().forEach(client -> verify(client, atLeast(1)).sendEvent("benchmark", payload));
+  }
+
+  private double eventsPerSecond(LongConsumer sender) {
+    for (int i = 0; i < WARMUP_EVENTS; i++) {
+      sender.accept(i % USERS + 1);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < EVENTS; i++) {
+      sender.accept(i % USERS + 1);
+    }
+    return EVENTS * 1e9 / (System.nanoTime() - start);
+  }
+}
@@ -0,0 +1,159 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+import ru.skillbox.zerone.backend.model.entity.WebSocketConnection;
+import ru.skillbox.zerone.backend.repository.WebSocketConnectionRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class SocketSessionLeaseServiceTest extends AbstractIntegrationTest {
+  private static final String KEYSPACE = WebSocketConnection.class.getName();
+  private static final String REAP_LOCK_KEY = "socket:reaper:lock";
+
+  @Autowired
+  private SocketSessionLeaseService underTest;
+  @Autowired
+  private WebSocketConnectionRepository webSocketConnectionRepository;
+  @Autowired
+  private SocketSessionRegistry sessionRegistry;
+  @Autowired
+  private ClusterEventBus clusterEventBus;
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final List<SocketIOClient> clients = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    clients.forEach(client -> sessionRegistry.unregister(client)
+        .ifPresent(clusterEventBus::left));
+    webSocketConnectionRepository.deleteAll();
+    redisTemplate.delete(REAP_LOCK_KEY);
+  }
+
+  @Test
+  void testReap_whenLeaseExpired_thenSessionRemovedFromUserIndex() {
+    // Given
+    var live = underTest.lease(UUID.randomUUID(), 900);
+    var ghost = underTest.lease(UUID.randomUUID(), 900);
+    redisTemplate.delete(KEYSPACE + ":" + ghost.getSessionId());
+    var reapedBefore = meterRegistry.counter("socket.sessions.reaped").count();
+
+    // When
+    underTest.reap();
+
+    // Then
+    assertThat(webSocketConnectionRepository.findAllByUserId("900"))
+        .extracting(WebSocketConnection::getSessionId)
+        .containsExactly(live.getSessionId());
+    assertThat(redisTemplate.opsForSet().isMember(KEYSPACE, ghost.getSessionId().toString())).isFalse();
+    assertThat(redisTemplate.hasKey(KEYSPACE + ":" + ghost.getSessionId() + ":idx")).isFalse();
+    assertThat(meterRegistry.counter("socket.sessions.reaped").count() - reapedBefore).isEqualTo(1);
+    assertThat(meterRegistry.get("socket.sessions.live").gauge().value()).isGreaterThanOrEqualTo(1);
+  }
+
+  @Test
+  void testReap_whenAllSessionsOfUserExpired_thenUserIsNotOnline() {
+    // Given
+    var ghost = underTest.lease(UUID.randomUUID(), 901);
+    redisTemplate.delete(KEYSPACE + ":" + ghost.getSessionId());
+
+    // When
+    underTest.reap();
+
+    // Then
+    assertThat(webSocketConnectionRepository.existsByUserId("901")).isFalse();
+  }
+
+  @Test
+  void testLease_whenSaved_thenHashHasTtl() {
+    // When
+    var connection = underTest.lease(UUID.randomUUID(), 902);
+
+    // Then
+    assertThat(redisTemplate.getExpire(KEYSPACE + ":" + connection.getSessionId())).isPositive();
+  }
+
+  @Test
+  void testRenew_whenLocalSessionLeaseLost_thenLeaseRestored() {
+    // Given
+    var client = connect(903);
+    redisTemplate.delete(KEYSPACE + ":" + client.getSessionId());
+
+    // When
+    underTest.renew();
+
+    // Then
+    assertThat(webSocketConnectionRepository.findById(client.getSessionId())).isPresent();
+    assertThat(redisTemplate.getExpire(KEYSPACE + ":" + client.getSessionId())).isPositive();
+  }
+
+  @Test
+  void testReap_whenRouteBelongsToDeadNode_thenRouteRemoved() {
+    // Given
+    connect(904);
+    redisTemplate.opsForSet().add("socket:route:904", "crashed-node");
+
+    // When
+    underTest.reap();
+
+    // Then
+    assertThat(redisTemplate.opsForSet().size("socket:route:904")).isEqualTo(1);
+    assertThat(redisTemplate.opsForSet().isMember("socket:route:904", "crashed-node")).isFalse();
+  }
+
+  @Test
+  void testReap_whenLockHeldByAnotherNode_thenNothingReaped() {
+    // Given
+    var ghost = underTest.lease(UUID.randomUUID(), 905);
+    redisTemplate.delete(KEYSPACE + ":" + ghost.getSessionId());
+    redisTemplate.opsForValue().set(REAP_LOCK_KEY, "other-node");
+
+    // When
+    underTest.reap();
+
+    // Then
+    assertThat(redisTemplate.opsForSet().isMember(KEYSPACE + ":userId:905", ghost.getSessionId().toString())).isTrue();
+    assertThat(redisTemplate.opsForValue().get(REAP_LOCK_KEY)).isEqualTo("other-node");
+  }
+
+  @Test
+  void testRenew_whenUserIndexEntryLost_thenIndexRestored() {
+    // Given
+    var client = connect(906);
+    redisTemplate.opsForSet().remove(KEYSPACE + ":userId:906", client.getSessionId().toString());
+
+    // When
+    underTest.renew();
+
+    // Then
+    assertThat(webSocketConnectionRepository.findAllByUserId("906"))
+        .extracting(WebSocketConnection::getSessionId)
+        .containsExactly(client.getSessionId());
+  }
+
+  private SocketIOClient connect(long userId) {
+    var client = mock(SocketIOClient.class);
+    given(client.getSessionId()).willReturn(UUID.randomUUID());
+    underTest.lease(client.getSessionId(), userId);
+    if (sessionRegistry.register(userId, client)) {
+      clusterEventBus.joined(userId);
+    }
+    clients.add(client);
+    return client;
+  }
+}
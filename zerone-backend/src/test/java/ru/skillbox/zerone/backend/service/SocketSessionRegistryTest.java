@@ -0,0 +1,87 @@
+package ru.skillbox.zerone.backend.service;
+
+import com.corundumstudio.socketio.SocketIOClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class SocketSessionRegistryTest {
+  private SimpleMeterRegistry meterRegistry;
+  private SocketSessionRegistry underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new SocketSessionRegistry(meterRegistry);
+    underTest.registerMetrics();
+  }
+
+  @Test
+  void testRegister_whenUserHasTwoSessions_thenBothClientsReturned() {
+    // Given
+    var first = client();
+    var second = client();
+
+    // When
+    underTest.register(1, first);
+    underTest.register(1, second);
+
+    // Then
+    assertThat(underTest.clients(1)).containsExactlyInAnyOrder(first, second);
+    assertThat(underTest.userOf(first.getSessionId())).contains(1L);
+    assertThat(meterRegistry.get("socket.sessions.local").gauge().value()).isEqualTo(2);
+    assertThat(meterRegistry.get("socket.users.local").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void testUnregister_whenLastSessionLeaves_thenUserIsForgotten() {
+    // Given
+    var first = client();
+    var second = client();
+    underTest.register(1, first);
+    underTest.register(1, second);
+
+    // When
+    var firstUser = underTest.unregister(first);
+    var secondUser = underTest.unregister(second);
+
+    // Then
+    assertThat(firstUser).contains(1L);
+    assertThat(secondUser).contains(1L);
+    assertThat(underTest.clients(1)).isEmpty();
+    assertThat(underTest.isRegistered(first.getSessionId())).isFalse();
+    assertThat(meterRegistry.get("socket.users.local").gauge().value()).isZero();
+  }
+
+  @Test
+  void testRegister_whenSessionReauthenticatesAsAnotherUser_thenMovedToNewUser() {
+    // Given
+    var client = client();
+    underTest.register(1, client);
+
+    // When
+    underTest.register(2, client);
+
+    // Then
+    assertThat(underTest.clients(1)).isEmpty();
+    assertThat(underTest.clients(2)).containsExactly(client);
+    assertThat(underTest.userOf(client.getSessionId())).contains(2L);
+  }
+
+  @Test
+  void testUnregister_whenSessionUnknown_thenEmpty() {
+    assertThat(underTest.unregister(client())).isEmpty();
+  }
+
+  private SocketIOClient client() {
+    var client = mock(SocketIOClient.class);
+    given(client.getSessionId()).willReturn(UUID.randomUUID());
+    return client;
+  }
+}
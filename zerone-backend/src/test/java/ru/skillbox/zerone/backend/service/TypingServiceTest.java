@@ -0,0 +1,225 @@
+package ru.skillbox.zerone.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.skillbox.zerone.backend.model.dto.socket.response.StartTypingResponseDTO;
+import ru.skillbox.zerone.backend.model.entity.Dialog;
+import ru.skillbox.zerone.backend.model.entity.User;
+import ru.skillbox.zerone.backend.model.projection.DialogParticipants;
+import ru.skillbox.zerone.backend.repository.DialogRepository;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static ru.skillbox.zerone.backend.model.enumerated.FriendshipStatus.BLOCKED;
+
+@ExtendWith(MockitoExtension.class)
+class TypingServiceTest {
+  private static final long DIALOG_ID = 10;
+  private static final long AUTHOR_ID = 1;
+  private static final long RECEIVER_ID = 2;
+
+  @Mock
+  private DialogRepository dialogRepository;
+  @Mock
+  private FriendGraph friendGraph;
+  @Mock
+  private ClusterEventBus clusterEventBus;
+  @Mock
+  private ClusterBroadcast clusterBroadcast;
+  @Captor
+  private ArgumentCaptor<Object> responseCaptor;
+  @Captor
+  private ArgumentCaptor<Consumer<Long>> forgetCaptor;
+
+  private SimpleMeterRegistry meterRegistry;
+  private TypingService underTest;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    underTest = new TypingService(dialogRepository, friendGraph, clusterEventBus, clusterBroadcast, meterRegistry);
+    ReflectionTestUtils.setField(underTest, "cacheSize", 100);
+    ReflectionTestUtils.setField(underTest, "coalesceWindow", 60000L);
+    ReflectionTestUtils.setField(underTest, "timeout", 60000L);
+    underTest.start();
+  }
+
+  @Test
+  void testStart_whenRepeatedWithinWindow_thenEmittedOnceWithoutDatabase() {
+    // Given
+    underTest.remember(dialog());
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      underTest.start(DIALOG_ID, AUTHOR_ID);
+    }
+
+    // Then
+    then(clusterEventBus).should().publish(eq(RECEIVER_ID), eq("start-typing-response"), responseCaptor.capture());
+    var response = (StartTypingResponseDTO) responseCaptor.getValue();
+    assertThat(response.getAuthorId()).isEqualTo(AUTHOR_ID);
+    assertThat(response.getAuthor()).isEqualTo("Ivan");
+    assertThat(response.getDialogId()).isEqualTo(DIALOG_ID);
+    assertThat(meterRegistry.counter("typing.events.coalesced").count()).isEqualTo(4);
+    then(dialogRepository).shouldHaveNoInteractions();
+  }
+
+  @Test
+  void testStop_whenTyping_thenStopEmittedOnce() {
+    // Given
+    underTest.remember(dialog());
+    underTest.start(DIALOG_ID, AUTHOR_ID);
+
+    // When
+    underTest.stop(DIALOG_ID, AUTHOR_ID);
+    underTest.stop(DIALOG_ID, AUTHOR_ID);
+
+    // Then
+    then(clusterEventBus).should(times(1)).publish(eq(RECEIVER_ID), eq("stop-typing-response"), any());
+  }
+
+  @Test
+  void testExpire_whenTimeoutPassed_thenStopEmitted() {
+    // Given
+    ReflectionTestUtils.setField(underTest, "timeout", 0L);
+    underTest.remember(dialog());
+    underTest.start(DIALOG_ID, AUTHOR_ID);
+
+    // When
+    underTest.expire();
+    underTest.expire();
+
+    // Then
+    then(clusterEventBus).should(times(1)).publish(eq(RECEIVER_ID), eq("stop-typing-response"), any());
+    assertThat(meterRegistry.counter("typing.events.expired").count()).isEqualTo(1);
+    assertThat(meterRegistry.get("typing.active").gauge().value()).isZero();
+  }
+
+  @Test
+  void testStart_whenAuthorBlockedByReceiver_thenNothingEmitted() {
+    // Given
+    underTest.remember(dialog());
+    given(friendGraph.hasStatus(RECEIVER_ID, AUTHOR_ID, BLOCKED)).willReturn(true);
+
+    // When
+    underTest.start(DIALOG_ID, AUTHOR_ID);
+
+    // Then
+    then(clusterEventBus).should(never()).publish(anyLong(), anyString(), any());
+  }
+
+  @Test
+  void testStart_whenDialogNotCached_thenParticipantsLoadedOnce() {
+    // Given
+    var participants = mock(DialogParticipants.class);
+    given(participants.getSenderId()).willReturn(AUTHOR_ID);
+    given(participants.getSenderFirstName()).willReturn("Ivan");
+    given(participants.getRecipientId()).willReturn(RECEIVER_ID);
+    given(participants.getRecipientFirstName()).willReturn("Petr");
+    given(dialogRepository.findParticipantsById(DIALOG_ID)).willReturn(Optional.of(participants));
+
+    // When
+    underTest.start(DIALOG_ID, AUTHOR_ID);
+    underTest.stop(DIALOG_ID, AUTHOR_ID);
+    underTest.start(DIALOG_ID, RECEIVER_ID);
+
+    // Then
+    then(dialogRepository).should(times(1)).findParticipantsById(DIALOG_ID);
+    then(clusterEventBus).should().publish(eq(AUTHOR_ID), eq("start-typing-response"), any());
+    assertThat(meterRegistry.counter("typing.participants.misses").count()).isEqualTo(1);
+  }
+
+  @Test
+  void testForgetUser_whenCalled_thenParticipantsEvictedAndBroadcast() {
+    // Given
+    underTest.remember(dialog());
+    var participants = participants();
+    given(dialogRepository.findParticipantsById(DIALOG_ID)).willReturn(Optional.of(participants));
+
+    // When
+    underTest.forgetUser(AUTHOR_ID);
+    underTest.start(DIALOG_ID, AUTHOR_ID);
+
+    // Then
+    then(clusterBroadcast).should().publish("typing:forget-user", AUTHOR_ID);
+    then(dialogRepository).should().findParticipantsById(DIALOG_ID);
+  }
+
+  @Test
+  void testStart_whenUserForgottenOnAnotherNode_thenParticipantsReloaded() {
+    // Given
+    then(clusterBroadcast).should().subscribe(eq("typing:forget-user"), eq(Long.class), forgetCaptor.capture());
+    underTest.remember(dialog());
+    var participants = participants();
+    given(dialogRepository.findParticipantsById(DIALOG_ID)).willReturn(Optional.of(participants));
+
+    // When
+    forgetCaptor.getValue().accept(RECEIVER_ID);
+    underTest.start(DIALOG_ID, AUTHOR_ID);
+
+    // Then
+    then(dialogRepository).should().findParticipantsById(DIALOG_ID);
+    then(clusterBroadcast).should(never()).publish(anyString(), any());
+  }
+
+  @Test
+  void testRemember_whenCacheFull_thenLeastRecentlyUsedDialogEvicted() {
+    // Given
+    ReflectionTestUtils.setField(underTest, "cacheSize", 1);
+    underTest.remember(dialog());
+    var other = dialog();
+    other.setId(DIALOG_ID + 1);
+    var participants = participants();
+    given(dialogRepository.findParticipantsById(DIALOG_ID)).willReturn(Optional.of(participants));
+
+    // When
+    underTest.remember(other);
+    underTest.start(DIALOG_ID + 1, AUTHOR_ID);
+    underTest.start(DIALOG_ID, AUTHOR_ID);
+
+    // Then
+    then(dialogRepository).should(times(1)).findParticipantsById(anyLong());
+    then(dialogRepository).should().findParticipantsById(DIALOG_ID);
+  }
+
+  private static DialogParticipants participants() {
+    var participants = mock(DialogParticipants.class);
+    given(participants.getSenderId()).willReturn(AUTHOR_ID);
+    given(participants.getSenderFirstName()).willReturn("Ivan");
+    given(participants.getRecipientId()).willReturn(RECEIVER_ID);
+    given(participants.getRecipientFirstName()).willReturn("Petr");
+    return participants;
+  }
+
+  private static Dialog dialog() {
+    var author = new User();
+    author.setId(AUTHOR_ID);
+    author.setFirstName("Ivan");
+    var receiver = new User();
+    receiver.setId(RECEIVER_ID);
+    receiver.setFirstName("Petr");
+    return Dialog.builder()
+        .id(DIALOG_ID)
+        .sender(author)
+        .recipient(receiver)
+        .build();
+  }
+}
@@ -0,0 +1,132 @@
+package ru.skillbox.zerone.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import ru.skillbox.zerone.backend.AbstractIntegrationTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Sql(scripts = {"classpath:truncate-all-users-cascade.sql", "classpath:mock-current-user-insert.sql",
+    "classpath:mock-posts-insert.sql"})
+class UnreadCounterServiceTest extends AbstractIntegrationTest {
+  private static final long READER_ID = 2;
+
+  @Autowired
+  private UnreadCounterService unreadCounterService;
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private long dialogId;
+
+  @BeforeEach
+  void setUp() {
+    var keys = redisTemplate.keys("unread:*");
+    if (keys != null && !keys.isEmpty()) {
+      redisTemplate.delete(keys);
+    }
+    dialogId = jdbcTemplate.queryForObject("INSERT INTO dialog (sender_id, recipient_id) VALUES (1, 2) RETURNING id",
+        Long.class);
+    jdbcTemplate.update("""
+        INSERT INTO dialog_summary (dialog_id, sender_id, recipient_id, last_message_id, last_message_author_id,
+            last_message_preview, last_message_time, sender_unread_count, recipient_unread_count)
+        VALUES (?, 1, 2, 100, 1, 'Привет', now(), 0, 2)
+        """, dialogId);
+  }
+
+  @Test
+  void testTotal_whenNotCached_thenLoadedWithTtl() {
+    // When
+    long total = unreadCounterService.total(READER_ID);
+
+    // Then
+    assertThat(total).isEqualTo(2);
+    assertThat(unreadCounterService.dialogUnread(READER_ID, dialogId)).isEqualTo(2);
+    assertThat(redisTemplate.getExpire("unread:user:" + READER_ID)).isPositive();
+  }
+
+  @Test
+  void testIncrement_whenCached_thenDialogAndTotalGrow() {
+    // Given
+    unreadCounterService.total(READER_ID);
+
+    // When
+    unreadCounterService.increment(READER_ID, dialogId);
+
+    // Then
+    assertThat(unreadCounterService.dialogUnread(READER_ID, dialogId)).isEqualTo(3);
+    assertThat(unreadCounterService.total(READER_ID)).isEqualTo(3);
+  }
+
+  @Test
+  void testIncrement_whenNotCached_thenHashNotCreated() {
+    // When
+    unreadCounterService.increment(READER_ID, dialogId);
+
+    // Then
+    assertThat(redisTemplate.hasKey("unread:user:" + READER_ID)).isFalse();
+    assertThat(redisTemplate.getExpire("unread:version:" + READER_ID)).isPositive();
+  }
+
+  @Test
+  void testSet_whenZero_thenDialogFieldRemovedAndTotalAdjusted() {
+    // Given
+    unreadCounterService.total(READER_ID);
+
+    // When
+    unreadCounterService.set(READER_ID, dialogId, 0);
+
+    // Then
+    assertThat(redisTemplate.opsForHash().hasKey("unread:user:" + READER_ID, Long.toString(dialogId))).isFalse();
+    assertThat(unreadCounterService.total(READER_ID)).isZero();
+  }
+
+  @Test
+  void testReplace_whenCounterChangedSinceRead_thenSkipped() {
+    // Given
+    var version = redisTemplate.opsForValue().get("unread:version:" + READER_ID);
+    unreadCounterService.increment(READER_ID, dialogId);
+
+    // When
+    unreadCounterService.replace(READER_ID, version, List.of());
+
+    // Then
+    assertThat(redisTemplate.hasKey("unread:user:" + READER_ID)).isFalse();
+    assertThat(unreadCounterService.dialogUnread(READER_ID, dialogId)).isEqualTo(2);
+  }
+
+  @Test
+  void testRepair_whenTotalDrifted_thenReloaded() {
+    // Given
+    unreadCounterService.total(READER_ID);
+    redisTemplate.opsForHash().put("unread:user:" + READER_ID, "total", "42");
+
+    // When
+    unreadCounterService.repair();
+
+    // Then
+    assertThat(unreadCounterService.total(READER_ID)).isEqualTo(2);
+  }
+
+  @Test
+  void testRepair_whenLockHeldByAnotherNode_thenSkipped() {
+    // Given
+    unreadCounterService.total(READER_ID);
+    redisTemplate.opsForHash().put("unread:user:" + READER_ID, "total", "42");
+    redisTemplate.opsForValue().set("unread:repair:lock", "other-node");
+
+    // When
+    unreadCounterService.repair();
+
+    // Then
+    assertThat(unreadCounterService.total(READER_ID)).isEqualTo(42);
+    assertThat(redisTemplate.opsForValue().get("unread:repair:lock")).isEqualTo("other-node");
+  }
+}
@@ -13,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ru.skillbox.zerone.backend.exception.ChangeEmailException;
 import ru.skillbox.zerone.backend.exception.UserAlreadyExistException;
@@ -67,6 +68,8 @@ class UserServiceTest implements UserMockUtils {
   private NotificationSettingRepository notificationSettingRepository;
   @Mock
   private NotificationSettingService notificationSettingService;
+  @Mock
+  private TypingService typingService;
   private final MockedStatic<CurrentUserUtils> utilsMockedStatic = Mockito.mockStatic(CurrentUserUtils.class);
   @InjectMocks
   private UserService userService;
@@ -303,13 +306,29 @@ void testRegisterAccount_whenValidInput_thenReturnSuccessResponseAndSaveUserToDa
     Page<User> pageUsers = new PageImpl<>(users);
     when(searchService.searchUsers(name, lastName, country, city, ageFrom, ageTo, PageRequest.of(offset / itemPerPage, itemPerPage))).thenReturn(pageUsers);
     when(userMapper.usersToUserDTO(users)).thenReturn(new ArrayList<>());
-    CommonListResponseDTO<UserDTO> result = userService.searchUsers(name, lastName, country, city, ageFrom, ageTo, offset, itemPerPage);
+    CommonListResponseDTO<UserDTO> result = userService.searchUsers(name, lastName, country, city, ageFrom, ageTo, offset, itemPerPage, true);
     verify(searchService).searchUsers(name, lastName, country, city, ageFrom, ageTo, PageRequest.of(offset / itemPerPage, itemPerPage));
     verify(userMapper).usersToUserDTO(users);
     assertEquals(users.size(), result.getTotal());
     assertEquals(offset, result.getOffset());
     assertEquals(itemPerPage, result.getPerPage());
   }
+
+  @Test
+  void searchUsers_whenExactTotalNotRequested_thenSliceUsedWithoutCount() {
+    int offset = 0;
+    int itemPerPage = 1;
+    User user = new User();
+    user.setId(1L);
+    List<User> users = List.of(user);
+    PageRequest pageable = PageRequest.of(0, itemPerPage);
+    when(searchService.searchUsersSlice("John", null, null, null, null, null, pageable))
+        .thenReturn(new SliceImpl<>(users, pageable, true));
+    when(userMapper.usersToUserDTO(users)).thenReturn(new ArrayList<>());
+    CommonListResponseDTO<UserDTO> result = userService.searchUsers("John", null, null, null, null, null, offset, itemPerPage, false);
+    verify(searchService, never()).searchUsers(any(), any(), any(), any(), any(), any(), any());
+    assertEquals(offset + itemPerPage + 1L, result.getTotal());
+  }
 }
 
 
@@ -16,9 +16,9 @@ INSERT INTO public."dialog" (recipient_id, sender_id)
 select user_recipient.id, user_sender.id from user_recipient,user_sender RETURNING id
     ),
     Message AS (
-insert into public.Message(message_text,"read_status",sent_time,dialog_id,author_id)
-select 'текст1SENT','SENT', '2023-01-27 17:58:18.48000', id_dialog.id, user_recipient.id
+insert into public.Message(message_text,sent_time,dialog_id,author_id)
+select 'текст1SENT', '2023-01-27 17:58:18.48000', id_dialog.id, user_recipient.id
 from id_dialog, user_recipient)
-insert into public.Message(message_text,"read_status",sent_time,dialog_id,author_id)
-select 'текст2READ','READ', '2023-01-27 17:58:18.48000', id_dialog.id, user_recipient.id
+insert into public.Message(message_text,sent_time,dialog_id,author_id)
+select 'текст2READ', '2023-01-27 17:58:18.48000', id_dialog.id, user_recipient.id
 from id_dialog, user_recipient;
\ No newline at end of file
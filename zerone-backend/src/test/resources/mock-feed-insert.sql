@@ -0,0 +1,5 @@
+INSERT INTO friendship (time, src_person_id, dst_person_id, status, version)
+VALUES ('2022-09-08 02:53:26.008', 1, 2, 'SUBSCRIBED', 0);
+
+INSERT INTO feed_item (user_id, post_id, time)
+VALUES (1, 4, '2022-11-20 11:57:50.096');
@@ -0,0 +1,10 @@
+INSERT INTO "user" (id, about, birth_date, city, confirmation_code, country, email, first_name, is_approved, is_blocked,
+                    is_deleted, last_name, last_online_time, password, phone, photo, reg_date, status)
+VALUES (2, null, null, null, 'test', null, 'testAccount2@hotmail.com', 'Боря', true,
+        false, false, 'Богданов', '2022-01-27 17:58:18.048000',
+        '$argon2id$v=19$m=4096,t=1,p=1$SWNGVlRHT1ZRTnNhS0dONA$urKNvix0im19T+rF1Tu5Rt77NyY4GheiKty/ILyb9oc',
+        'test', null, '2022-01-27 17:58:18.048000', 'ACTIVE'),
+       (3, null, null, null, 'test', null, 'testAccount3@hotmail.com', 'Вова', true,
+        false, false, 'Васильев', '2022-01-27 17:58:18.048000',
+        '$argon2id$v=19$m=4096,t=1,p=1$SWNGVlRHT1ZRTnNhS0dONA$urKNvix0im19T+rF1Tu5Rt77NyY4GheiKty/ILyb9oc',
+        'test', null, '2022-01-27 17:58:18.048000', 'ACTIVE');
@@ -0,0 +1,58 @@
+INSERT INTO "user" (id, about, birth_date, city, confirmation_code, country, email, first_name, is_approved, is_blocked,
+                    is_deleted, last_name, last_online_time, password, phone, photo, reg_date, status)
+VALUES (2, null, null, null, 'test', null, 'testAccount2@hotmail.com', 'Боря', true,
+        false, false, 'Богданов', '2022-01-27 17:58:18.048000',
+        '$argon2id$v=19$m=4096,t=1,p=1$SWNGVlRHT1ZRTnNhS0dONA$urKNvix0im19T+rF1Tu5Rt77NyY4GheiKty/ILyb9oc',
+        'test', null, '2022-01-27 17:58:18.048000', 'ACTIVE'),
+       (3, null, null, null, 'test', null, 'testAccount3@hotmail.com', 'Вова', true,
+        false, false, 'Васильев', '2022-01-27 17:58:18.048000',
+        '$argon2id$v=19$m=4096,t=1,p=1$SWNGVlRHT1ZRTnNhS0dONA$urKNvix0im19T+rF1Tu5Rt77NyY4GheiKty/ILyb9oc',
+        'test', null, '2022-01-27 17:58:18.048000', 'ACTIVE');
+
+INSERT INTO "post" (id, is_blocked, is_deleted, post_text, time, title, update_date, author_id)
+VALUES (1, false, false, 'Текст первого поста', '2023-01-01 10:00:00.000', 'Первый пост', '2023-02-19 21:57:38.297', 1),
+       (2, false, false, 'Текст второго поста', '2023-01-02 10:00:00.000', 'Второй пост', '2023-02-19 21:57:38.297', 2),
+       (3, false, false, 'Текст третьего поста', '2023-01-03 10:00:00.000', 'Третий пост', '2023-02-19 21:57:38.297', 3),
+       (4, false, false, 'Текст четвертого поста', '2023-01-04 10:00:00.000', 'Четвертый пост', '2023-02-19 21:57:38.297', 1),
+       (5, false, false, 'Текст пятого поста', '2023-01-05 10:00:00.000', 'Пятый пост', '2023-02-19 21:57:38.297', 2),
+       (6, false, false, 'Текст шестого поста', '2023-01-06 10:00:00.000', 'Шестой пост', '2023-02-19 21:57:38.297', 3);
+
+INSERT INTO tag (id, tag)
+VALUES (100, 'Mapper tag 1'),
+       (200, 'Mapper tag 2'),
+       (300, 'Mapper tag 3');
+
+INSERT INTO post_to_tag (id, post_id, tag_id)
+VALUES (1, 1, 100),
+       (2, 1, 200),
+       (3, 2, 300),
+       (4, 3, 100),
+       (5, 4, 200),
+       (6, 5, 300),
+       (7, 6, 100),
+       (8, 6, 200);
+
+INSERT INTO comment (id, comment_text, is_blocked, is_deleted, time, author_id, parent_id, post_id, type)
+VALUES (1, 'Комментарий 1', false, false, '2023-02-20 10:00:00.000', 2, null, 1, 'POST'),
+       (2, 'Ответ на комментарий 1', false, false, '2023-02-20 11:00:00.000', 3, 1, 1, 'COMMENT'),
+       (3, 'Комментарий 2', false, false, '2023-02-20 12:00:00.000', 3, null, 2, 'POST'),
+       (4, 'Комментарий 3', false, false, '2023-02-20 13:00:00.000', 1, null, 3, 'POST'),
+       (5, 'Ответ на комментарий 3', false, false, '2023-02-20 14:00:00.000', 2, 4, 3, 'COMMENT'),
+       (6, 'Ответ на ответ', false, false, '2023-02-20 15:00:00.000', 3, 5, 3, 'COMMENT'),
+       (7, 'Комментарий 4', false, false, '2023-02-20 16:00:00.000', 2, null, 4, 'POST'),
+       (8, 'Комментарий 5', false, false, '2023-02-20 17:00:00.000', 1, null, 5, 'POST'),
+       (9, 'Комментарий 6', false, false, '2023-02-20 18:00:00.000', 3, null, 6, 'POST'),
+       (10, 'Ответ на комментарий 6', false, false, '2023-02-20 19:00:00.000', 1, 9, 6, 'COMMENT');
+
+UPDATE post SET comment_count = 1 WHERE id IN (1, 2, 3, 4, 5, 6);
+
+UPDATE comment SET reply_count = 1 WHERE id IN (1, 4, 5, 9);
+
+INSERT INTO "like" (id, time, type, comment_id, post_id, user_id)
+VALUES (1, '2023-02-21 10:00:00.000', 'POST', null, 1, 1),
+       (2, '2023-02-21 10:00:00.000', 'POST', null, 1, 2),
+       (3, '2023-02-21 10:00:00.000', 'POST', null, 3, 3),
+       (4, '2023-02-21 10:00:00.000', 'POST', null, 6, 1),
+       (5, '2023-02-21 10:00:00.000', 'COMMENT', 1, null, 1),
+       (6, '2023-02-21 10:00:00.000', 'COMMENT', 5, null, 3),
+       (7, '2023-02-21 10:00:00.000', 'COMMENT', 10, null, 2);